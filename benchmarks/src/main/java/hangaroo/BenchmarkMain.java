@@ -0,0 +1,37 @@
+package hangaroo;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The {@code BenchmarkMain} class runs the benchmarks of the game with the GC
+ * profiler attached, so every result also reports how much the benchmark allocates
+ * ({@code gc.alloc.rate.norm} is bytes per operation).
+ *
+ * <p>
+ * The usual JMH options can be passed on the command line. The word corpus is read
+ * from {@code BootlegHangaroo/AppData}, so run the benchmarks from the root of the
+ * repository:
+ * </p>
+ * <pre> {@code
+ * mvn -B package
+ * java -jar benchmarks/target/benchmarks.jar
+ * java -jar benchmarks/target/benchmarks.jar LeaderboardBenchmark -p entries=1000
+ * }</pre>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,103 @@
+package hangaroo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks loading a leaderboard from its XML snapshot and recording a score on it,
+ * with 10, 1,000 and 100,000 players on the board.
+ *
+ * <p>
+ * Each trial works on its own copy of the files in a temporary directory, through a
+ * {@link JournaledLeaderboardStore} with the default batching and compaction settings,
+ * so the background writer and compactor run during the update benchmark as they
+ * would in the game.
+ * </p>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LeaderboardBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int entries;
+
+    private Path directory;
+    private Path snapshot;
+    private Leaderboard leaderboard;
+    private Player[] players;
+    private JournaledLeaderboardStore store;
+    private int next;
+    private int score;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("hangaroo-bench");
+        snapshot = directory.resolve("Leaderboard.xml");
+        Map<String, Integer> scores = new HashMap<>();
+        players = new Player[entries];
+        for (int i = 0; i < entries; i++) {
+            players[i] = new Player("Player" + i, i);
+            scores.put(players[i].getName(), i);
+        }
+        Leaderboard.writeXml(snapshot, scores);
+        store = new JournaledLeaderboardStore(snapshot, directory.resolve("Leaderboard.journal"), 1000, 64, 200);
+        leaderboard = new Leaderboard(store);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Parses the XML snapshot and ranks its players, as a store does when it opens.
+     */
+    @Benchmark
+    public Object load() throws IOException {
+        LeaderboardIndex index = new LeaderboardIndex();
+        Leaderboard.readXml(snapshot).forEach(index::upsert);
+        return index;
+    }
+
+    /**
+     * Records a new score for the next player, as the end of a game does.
+     */
+    @Benchmark
+    public Object update() {
+        Player player = players[next];
+        next = next + 1 == players.length ? 0 : next + 1;
+        player.setScore(++score);
+        leaderboard.update(player);
+        return player;
+    }
+}
@@ -0,0 +1,97 @@
+package hangaroo;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks setting up a {@link Stage} and playing it: guessing letters and drawing
+ * the word with its hidden letters.
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StageBenchmark {
+
+    private static final int ALPHABET_SIZE = 26;
+
+    @Param({"EASY", "MEDIUM", "HARD"})
+    public String difficulty;
+
+    private Difficulty level;
+    private WordGenerator generator;
+    private SplittableRandom random;
+    private Word word;
+    private Stage stage;
+
+    @Setup
+    public void setUp() {
+        level = Difficulty.valueOf(difficulty);
+        random = new SplittableRandom(42);
+        generator = new WordGenerator(WordCorpus.get(), random);
+        word = generator.generateWord(level);
+        stage = new Stage();
+        stage.reset(word, level, random);
+    }
+
+    /**
+     * Creates a stage for a new word, drawing from the generator's random numbers as a
+     * game session does, rather than reusing one stage.
+     */
+    @Benchmark
+    public Object construct() {
+        Stage created = new Stage();
+        created.reset(generator.generateWord(level), level, random);
+        return created;
+    }
+
+    /**
+     * Reuses one stage for a new word, as a game session does.
+     */
+    @Benchmark
+    public Object reset() {
+        stage.reset(word, level, random);
+        return stage;
+    }
+
+    /**
+     * Guesses every letter of the alphabet once. Each operation is one guess; the cost
+     * of the reset that hides the letters again is included, see {@link #reset()}.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ALPHABET_SIZE)
+    public boolean guessLetter() {
+        stage.reset(word, level, random);
+        boolean guessed = false;
+        for (char letter = 'A'; letter <= 'Z'; letter++) {
+            guessed |= stage.guessLetter(letter);
+        }
+        return guessed;
+    }
+
+    /**
+     * Draws the word with its hidden letters blanked out, once per frame of the game.
+     */
+    @Benchmark
+    public String retrieveGuessedLetters() {
+        return stage.retrieveGuessedLetters();
+    }
+}
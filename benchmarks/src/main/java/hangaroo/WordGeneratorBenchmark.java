@@ -0,0 +1,82 @@
+package hangaroo;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks creating a {@link WordGenerator} over the shared corpus and drawing words
+ * from it.
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WordGeneratorBenchmark {
+
+    /**
+     * The corpus and random numbers a generator is created from. Creating a generator
+     * shuffles a deck for every difficulty, so it takes no difficulty parameter.
+     */
+    @State(Scope.Thread)
+    public static class Creation {
+        private WordCorpus corpus;
+        private SplittableRandom random;
+
+        @Setup
+        public void setUp() {
+            corpus = WordCorpus.get();
+            random = new SplittableRandom(42);
+        }
+    }
+
+    /**
+     * A generator drawing words of one difficulty.
+     */
+    @State(Scope.Thread)
+    public static class Drawing {
+
+        @Param({"EASY", "MEDIUM", "HARD"})
+        public String difficulty;
+
+        private Difficulty level;
+        private WordGenerator generator;
+
+        @Setup
+        public void setUp() {
+            level = Difficulty.valueOf(difficulty);
+            generator = new WordGenerator(WordCorpus.get(), new SplittableRandom(42));
+        }
+    }
+
+    /**
+     * Creates a generator, which shuffles a deck for every difficulty.
+     */
+    @Benchmark
+    public Object construct(Creation state) {
+        return new WordGenerator(state.corpus, state.random);
+    }
+
+    /**
+     * Draws the next word of the difficulty, reshuffling the deck when it runs out.
+     */
+    @Benchmark
+    public Object generateWord(Drawing state) {
+        return state.generator.generateWord(state.level);
+    }
+}
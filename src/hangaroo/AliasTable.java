@@ -0,0 +1,101 @@
+package hangaroo;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The {@code AliasTable} class samples indices in proportion to their weights in
+ * constant time, using Vose's variant of Walker's alias method.
+ *
+ * <p>
+ * Building the table takes O(n): every index gets a column holding the probability of
+ * keeping that index and an alias to fall back to otherwise. A draw then picks a column
+ * uniformly and flips one biased coin, so it is O(1) however large the table is. The
+ * table is immutable once built and can be shared between threads.
+ * </p>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+final class AliasTable {
+
+    private final double[] probability;
+    private final int[] alias;
+
+    /**
+     * Builds the table for the given weights. Negative and non-finite weights count as
+     * zero; if every weight is zero the indices are sampled uniformly.
+     *
+     * @param weights The weight of each index.
+     */
+    AliasTable(double[] weights) {
+        int n = weights.length;
+        probability = new double[n];
+        alias = new int[n];
+        double total = 0;
+        for (double weight : weights) {
+            total += sanitize(weight);
+        }
+
+        // Scale the weights so that the average column holds exactly 1
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = total > 0 ? sanitize(weights[i]) * n / total : 1.0;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        // Top up each small column with the excess of a large one
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // Whatever is left is full up to rounding error
+        while (largeCount > 0) {
+            probability[large[--largeCount]] = 1.0;
+        }
+        while (smallCount > 0) {
+            probability[small[--smallCount]] = 1.0;
+        }
+    }
+
+    /**
+     * Draws an index with probability proportional to its weight.
+     *
+     * @param random The random generator to draw with.
+     * @return The drawn index, or -1 if the table is empty.
+     */
+    int sample(RandomGenerator random) {
+        if (probability.length == 0) {
+            return -1;
+        }
+        int column = random.nextInt(probability.length);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+
+    /**
+     * Retrieves the number of indices in the table.
+     *
+     * @return The size of the table.
+     */
+    int size() {
+        return probability.length;
+    }
+
+    private static double sanitize(double weight) {
+        return weight > 0 && Double.isFinite(weight) ? weight : 0;
+    }
+}
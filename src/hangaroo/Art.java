@@ -1,3 +1,5 @@
+package hangaroo;
+
 public class Art {
 
     public static final String TITLE = """
@@ -16,6 +18,11 @@ public class Art {
                 ░█░░░█░░░█▀█░▀▀█░▀▀█░░█░░█░░
                 ░▀▀▀░▀▀▀░▀░▀░▀▀▀░▀▀▀░▀▀▀░▀▀▀             
                 """;
+    public static final String GAME_MODE_BLITZ = """
+                ░█▀▄░█░░░▀█▀░▀█▀░▀▀█
+                ░█▀▄░█░░░░█░░░█░░▄▀░
+                ░▀▀░░▀▀▀░▀▀▀░░▀░░▀▀▀
+                """;
     public static final String[] KANGAROO_STATE = {"""
                    |\\\\._
                     |    ^^__
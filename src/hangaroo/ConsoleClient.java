@@ -0,0 +1,245 @@
+package hangaroo;
+
+import java.io.PrintStream;
+
+/**
+ * The {@code ConsoleClient} class is the text user interface of the game. It runs the
+ * main menu, reads guesses from a {@link ConsoleInput} and presents the events of a
+ * {@link GameSession} through a {@link FrameRenderer}.
+ *
+ * <p>
+ * The client holds no game rules of its own; it only forwards the player's input to
+ * the session and draws what the session reports.
+ * </p>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+class ConsoleClient implements GameListener {
+
+    private final ConsoleInput input;
+    private final PrintStream out;
+    private final FrameRenderer frame;
+
+    /**
+     * Creates a client reading from the given input and writing to the given stream.
+     *
+     * @param input The input the player types into.
+     * @param out   The stream menus are printed to.
+     * @param frame The renderer game frames are drawn with; must write to {@code out}.
+     */
+    ConsoleClient(ConsoleInput input, PrintStream out, FrameRenderer frame) {
+        this.input = input;
+        this.out = out;
+        this.frame = frame;
+    }
+
+    /**
+     * Runs the main menu until the input is exhausted.
+     */
+    void run() {
+        try {
+            out.print(Art.TITLE);
+            out.print(Art.KANGAROO_STATE[4]);
+            out.print("Enter player name: ");
+            Player player = new Player(input.nextLine());
+            out.print(Art.SELECT_DIFFICULTY);
+            out.print("Select: ");
+            Difficulty difficulty = readDifficulty();
+            while (true) {
+                out.println(Art.TITLE);
+                out.print(Art.MENU);
+                out.print("Enter: ");
+                char choice = input.next().charAt(0);
+                input.nextLine();
+                switch (choice) {
+                    case '1':
+                        out.println("Enter your name: ");
+                        player = new Player(input.next());
+                        break;
+                    case '2':
+                        out.println(Art.GAME_MODE_CLASSIC);
+                        out.println(Art.GAME_MODE_SURVIVAL);
+                        out.print(Art.GAME_MODE_BLITZ);
+                        out.print("Select [1], [2] or [3]: ");
+                        switch (input.next().charAt(0)) {
+                            case '1':
+                                play(newSession(GameMode.CLASSIC, player, difficulty));
+                                input.nextLine();
+                                break;
+                            case '2':
+                                play(newSession(GameMode.SURVIVAL, player, difficulty));
+                                break;
+                            case '3':
+                                play(newSession(GameMode.BLITZ, player, difficulty));
+                                break;
+                            default:
+                                out.println("Invalid choice!");
+                                break;
+                        }
+                        break;
+                    case '3':
+                        out.println(Art.GAME_MODE_CLASSIC);
+                        out.println(Art.GAME_MODE_SURVIVAL);
+                        out.print(Art.GAME_MODE_BLITZ);
+                        out.print("Select [1], [2] or [3], or [4] for all boards: ");
+                        LeaderboardDisplay leaderboard = switch (input.next().charAt(0)) {
+                            case '1' -> Leaderboard.of(GameMode.CLASSIC, difficulty);
+                            case '2' -> Leaderboard.of(GameMode.SURVIVAL, difficulty);
+                            case '3' -> Leaderboard.of(GameMode.BLITZ, difficulty);
+                            case '4' -> Leaderboard.global();
+                            default -> null;
+                        };
+                        if (leaderboard == null) {
+                            out.println("Invalid choice!");
+                        } else {
+                            leaderboard.display(out, player.getName());
+                        }
+                        break;
+                    case '4':
+                        out.print(Art.SELECT_DIFFICULTY);
+                        difficulty = readDifficulty();
+                        break;
+                    case '5':
+                        out.print(Art.TITLE);
+                        out.println("Instructions");
+                        out.print(Art.INSTRUCTIONS);
+                        break;
+                    default:
+                        out.println("Invalid choice!");
+                        break;
+                }
+                input.nextLine();
+            }
+        } catch (Exception e) {
+            out.println("Error has occurred.");
+        }
+    }
+
+    private Difficulty readDifficulty() {
+        return switch (input.next().charAt(0)) {
+            case '1' -> Difficulty.EASY;
+            case '2' -> Difficulty.MEDIUM;
+            case '3' -> Difficulty.HARD;
+            default -> throw new IllegalStateException("Unexpected value: " + input.next().charAt(0));
+        };
+    }
+
+    private GameSession newSession(GameMode gameMode, Player player, Difficulty difficulty) {
+        // -Dhangaroo.seed replays the exact same words and hidden letters
+        Long seed = Long.getLong("hangaroo.seed");
+        GameSession session = seed != null
+                ? new GameSession(gameMode, player, difficulty, this, seed)
+                : new GameSession(gameMode, player, difficulty, this);
+        // -Dhangaroo.weighted draws words by weight instead of from the shuffled deck
+        session.setWeighted(Boolean.getBoolean("hangaroo.weighted"));
+        session.setHistory(SeenWords.load(player.getName()));
+        return session;
+    }
+
+    private void play(GameSession session) {
+        session.start();
+        while (session.isPlaying()) {
+            drawTurn(session);
+            char letter = input.nextChar();
+            // In BLITZ the clock may have ended the game while waiting for input
+            if (!session.isPlaying()) {
+                break;
+            }
+            session.submitGuess(letter);
+        }
+        // The menu is printed directly, so the next game starts from a full frame
+        frame.invalidate();
+    }
+
+    private void drawTurn(GameSession session) {
+        // The session is read before the frame is locked, never the other way round
+        GameSession.Turn turn = session.currentTurn();
+        synchronized (frame) {
+            appendTurn(session, turn);
+            frame.render();
+        }
+    }
+
+    private void appendTurn(GameSession session, GameSession.Turn turn) {
+        frame.append("Stage ").append(turn.stageNumber()).append("\n");
+        frame.append("Name: ").appendLine(session.getPlayer().getName());
+        frame.append("Health: ").append(turn.health()).append("\n");
+        frame.append("Token: ").append(turn.token()).append("\n");
+        frame.append("Score: ").append(turn.score()).append("\n");
+        switch (turn.health()) {
+            case 3 -> frame.appendLine(Art.KANGAROO_STATE[0]);
+            case 2 -> frame.appendLine(Art.KANGAROO_STATE[1]);
+            case 1 -> frame.appendLine(Art.KANGAROO_STATE[2]);
+            case 0 -> frame.appendLine(Art.KANGAROO_STATE[3]);
+        }
+        frame.appendLine("Guess the word: ");
+        frame.append(turn.guessedLetters()).append("\n").appendLine(turn.description());
+        if (session.getGameMode().TURN_MILLIS > 0) {
+            frame.append("You have ").append((int) (session.getGameMode().TURN_MILLIS / 1000)).appendLine(" seconds!");
+        }
+        frame.appendLine("Enter your guess: ");
+    }
+
+    @Override
+    public void stageStarted(GameSession session) {
+        synchronized (frame) {
+            if (session.getGameMode() == GameMode.CLASSIC) {
+                frame.append(Art.GAME_MODE_CLASSIC);
+            } else if (session.getGameMode() == GameMode.BLITZ) {
+                frame.append(Art.GAME_MODE_BLITZ);
+            }
+        }
+    }
+
+    @Override
+    public void turnTimedOut(GameSession session) {
+        // Called from the turn clock while the player is still at the prompt
+        GameSession.Turn turn = session.currentTurn();
+        synchronized (frame) {
+            frame.appendLine("Time's up!");
+            if (turn.health() != Player.NO_HEALTH) {
+                appendTurn(session, turn);
+                frame.render();
+            }
+        }
+    }
+
+    @Override
+    public void guessed(GameSession session, char letter, GuessResult result) {
+        // The guess result is drawn at the top of the next frame
+        synchronized (frame) {
+            frame.append(result.isCorrect() ? Art.CORRECT : Art.WRONG);
+        }
+    }
+
+    @Override
+    public void stageCleared(GameSession session, Stage stage) {
+        String guessedLetters = stage.retrieveGuessedLetters();
+        String description = stage.getWord().getDescription();
+        synchronized (frame) {
+            frame.appendLine(Art.WIN);
+            frame.append(guessedLetters).append("\n").appendLine(description);
+        }
+    }
+
+    @Override
+    public void gameEnded(GameSession session, boolean won) {
+        int score = session.getPlayer().getScore();
+        synchronized (frame) {
+            if (session.getGameMode() != GameMode.CLASSIC) {
+                frame.append(Art.GAME_OVER);
+                frame.append("Final score: ").append(score).append("\n");
+            } else if (won) {
+                frame.append(Art.CONGRATULATIONS);
+            } else {
+                frame.append(Art.KANGAROO_STATE[3]);
+                frame.append(Art.GAME_OVER);
+            }
+            if (session.getGameMode().TURN_MILLIS > 0) {
+                frame.appendLine("Type any letter to continue.");
+            }
+            frame.render();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package hangaroo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.NoSuchElementException;
+
+/**
+ * The {@code ConsoleInput} class reads lines, tokens and single characters from one
+ * buffered input stream for the whole session.
+ *
+ * <p>
+ * Every reader of the session shares the same buffer, so nothing typed (or piped)
+ * ahead of time is lost between prompts. Guesses are read one character at a time
+ * with {@link #nextChar()}, which lets a whole line of guesses such as {@code AEIOU}
+ * be pasted or scripted at once; each letter is consumed by the next prompt.
+ * </p>
+ *
+ * <p>
+ * Like {@code java.util.Scanner}, the methods throw {@code NoSuchElementException}
+ * once the input is exhausted.
+ * </p>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+final class ConsoleInput {
+
+    private static final ConsoleInput SYSTEM = new ConsoleInput(System.in);
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private final StringBuilder text = new StringBuilder();
+    private int position;
+    private int limit;
+
+    /**
+     * Creates an input reading from the given stream.
+     *
+     * @param in The stream to read from.
+     */
+    ConsoleInput(InputStream in) {
+        this.reader = new InputStreamReader(in);
+    }
+
+    /**
+     * Retrieves the input shared by everything reading from {@code System.in}.
+     *
+     * @return The console input.
+     */
+    static ConsoleInput system() {
+        return SYSTEM;
+    }
+
+    /**
+     * Reads the rest of the current line, without its line terminator.
+     *
+     * @return The rest of the line, possibly empty.
+     */
+    String nextLine() {
+        if (!fill()) {
+            throw new NoSuchElementException("No line found");
+        }
+        text.setLength(0);
+        while (fill()) {
+            char c = buffer[position++];
+            if (c == '\n') {
+                break;
+            }
+            if (c != '\r') {
+                text.append(c);
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Reads the next whitespace-delimited token, skipping any leading whitespace
+     * including line breaks.
+     *
+     * @return The next token.
+     */
+    String next() {
+        skipWhitespace();
+        text.setLength(0);
+        while (fill() && !Character.isWhitespace(buffer[position])) {
+            text.append(buffer[position++]);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Reads the next non-whitespace character. Characters typed after it on the same
+     * line are left in the buffer for the following reads.
+     *
+     * @return The next non-whitespace character.
+     */
+    char nextChar() {
+        skipWhitespace();
+        return buffer[position++];
+    }
+
+    private void skipWhitespace() {
+        while (true) {
+            if (!fill()) {
+                throw new NoSuchElementException();
+            }
+            if (!Character.isWhitespace(buffer[position])) {
+                return;
+            }
+            position++;
+        }
+    }
+
+    /**
+     * Makes sure at least one character is buffered, reading from the stream if needed.
+     *
+     * @return False if the end of the stream has been reached.
+     */
+    private boolean fill() {
+        if (position < limit) {
+            return true;
+        }
+        try {
+            int read = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            limit = Math.max(read, 0);
+            return read > 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,3 +1,5 @@
+package hangaroo;
+
 enum Difficulty {
     EASY, MEDIUM, HARD;
 }
@@ -0,0 +1,218 @@
+package hangaroo;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+/**
+ * The {@code FrameRenderer} class builds a whole screen of terminal output into one
+ * reusable buffer and sends it to the terminal in a single write.
+ *
+ * <p>
+ * Callers append the pieces of a frame (art, player information, the masked word,
+ * prompts) and then call {@link #render()}. The frame is encoded into a reusable byte
+ * buffer and written and flushed once, instead of issuing one synchronized, flushed
+ * write per line.
+ * </p>
+ *
+ * <p>
+ * In ANSI mode the renderer remembers the previous frame and only redraws the lines
+ * that changed, moving the cursor with ANSI escape sequences. ANSI mode is enabled
+ * for the console with {@code -Dhangaroo.ansi=true}. Whenever something else writes
+ * to the terminal between frames, {@link #invalidate()} must be called so the next
+ * frame is drawn in full.
+ * </p>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+final class FrameRenderer {
+
+    private static final String ESC = "\u001B[";
+
+    private static final FrameRenderer CONSOLE = new FrameRenderer(System.out, Boolean.getBoolean("hangaroo.ansi"));
+
+    private final PrintStream out;
+    private final boolean ansi;
+    private final CharsetEncoder encoder;
+    private StringBuilder frame = new StringBuilder(4096);
+    private StringBuilder previous = new StringBuilder(4096);
+    private final StringBuilder output = new StringBuilder(4096);
+    private int[] lineStarts = new int[64];
+    private int[] previousLineStarts = new int[64];
+    private int previousLineCount = -1;
+    private ByteBuffer bytes = ByteBuffer.allocate(8192);
+
+    /**
+     * Creates a renderer writing to the given stream.
+     *
+     * @param out  The stream frames are written to.
+     * @param ansi Whether only the changed lines of each frame are redrawn.
+     */
+    FrameRenderer(PrintStream out, boolean ansi) {
+        this.out = out;
+        this.ansi = ansi;
+        this.encoder = out.charset().newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Retrieves the renderer for {@code System.out}.
+     *
+     * @return The console renderer.
+     */
+    static FrameRenderer console() {
+        return CONSOLE;
+    }
+
+    /**
+     * Appends text to the current frame.
+     *
+     * @param text The text to append.
+     * @return This renderer.
+     */
+    FrameRenderer append(CharSequence text) {
+        frame.append(text);
+        return this;
+    }
+
+    /**
+     * Appends a number to the current frame.
+     *
+     * @param number The number to append.
+     * @return This renderer.
+     */
+    FrameRenderer append(int number) {
+        frame.append(number);
+        return this;
+    }
+
+    /**
+     * Appends text followed by a line break to the current frame.
+     *
+     * @param text The text to append.
+     * @return This renderer.
+     */
+    FrameRenderer appendLine(CharSequence text) {
+        frame.append(text).append('\n');
+        return this;
+    }
+
+    /**
+     * Sends the current frame to the terminal in a single write and starts a new,
+     * empty frame.
+     */
+    void render() {
+        if (!ansi) {
+            write(frame);
+            frame.setLength(0);
+            return;
+        }
+
+        int lineCount = indexLines();
+        output.setLength(0);
+        if (previousLineCount < 0) {
+            output.append(ESC).append("2J").append(ESC).append("H").append(frame);
+        } else {
+            for (int line = 0; line < lineCount; line++) {
+                if (line >= previousLineCount || !sameLine(line)) {
+                    output.append(ESC).append(line + 1).append(";1H")
+                            .append(frame, lineStarts[line], lineEnd(frame, lineStarts[line]))
+                            .append(ESC).append('K');
+                }
+            }
+            if (lineCount < previousLineCount) {
+                output.append(ESC).append(lineCount + 1).append(";1H").append(ESC).append('J');
+            }
+            // Leave the cursor where the frame ends, after any trailing prompt
+            int lastLine = lineCount - 1;
+            if (frame.length() > 0 && frame.charAt(frame.length() - 1) == '\n') {
+                output.append(ESC).append(lastLine + 2).append(";1H");
+            } else {
+                output.append(ESC).append(lastLine + 1).append(';')
+                        .append(frame.length() - lineStarts[lastLine] + 1).append('H');
+            }
+        }
+        write(output);
+
+        StringBuilder swap = previous;
+        previous = frame;
+        frame = swap;
+        frame.setLength(0);
+        int[] swapStarts = previousLineStarts;
+        previousLineStarts = lineStarts;
+        lineStarts = swapStarts;
+        previousLineCount = lineCount;
+    }
+
+    /**
+     * Forgets the previous frame so the next frame is drawn in full. Must be called
+     * after anything other than this renderer has written to the terminal.
+     */
+    void invalidate() {
+        previousLineCount = -1;
+    }
+
+    private int indexLines() {
+        int lineCount = 0;
+        lineStarts[lineCount++] = 0;
+        for (int i = 0; i < frame.length(); i++) {
+            if (frame.charAt(i) == '\n' && i + 1 < frame.length()) {
+                if (lineCount == lineStarts.length) {
+                    lineStarts = Arrays.copyOf(lineStarts, lineCount * 2);
+                }
+                lineStarts[lineCount++] = i + 1;
+            }
+        }
+        return lineCount;
+    }
+
+    private boolean sameLine(int line) {
+        int start = lineStarts[line];
+        int length = lineEnd(frame, start) - start;
+        int previousStart = previousLineStarts[line];
+        if (length != lineEnd(previous, previousStart) - previousStart) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (frame.charAt(start + i) != previous.charAt(previousStart + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int lineEnd(StringBuilder text, int start) {
+        for (int i = start; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') {
+                return i;
+            }
+        }
+        return text.length();
+    }
+
+    private void write(CharSequence text) {
+        CharBuffer chars = CharBuffer.wrap(text);
+        bytes.clear();
+        encoder.reset();
+        while (encoder.encode(chars, bytes, true).isOverflow()) {
+            bytes = grow(bytes);
+        }
+        while (encoder.flush(bytes).isOverflow()) {
+            bytes = grow(bytes);
+        }
+        bytes.flip();
+        out.write(bytes.array(), 0, bytes.limit());
+        out.flush();
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer) {
+        ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+        buffer.flip();
+        return larger.put(buffer);
+    }
+}
@@ -0,0 +1,57 @@
+package hangaroo;
+
+/**
+ * The {@code GameListener} interface receives the events emitted by a
+ * {@code GameSession}. Clients such as the console UI implement it to present the
+ * game; every method has an empty default so a client only overrides what it needs.
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+public interface GameListener {
+
+    /**
+     * Called when a new stage begins.
+     *
+     * @param session The session whose stage started.
+     */
+    default void stageStarted(GameSession session) {
+    }
+
+    /**
+     * Called after every guess has been applied.
+     *
+     * @param session The session the guess was submitted to.
+     * @param letter  The guessed letter.
+     * @param result  The outcome of the guess.
+     */
+    default void guessed(GameSession session, char letter, GuessResult result) {
+    }
+
+    /**
+     * Called when the turn clock of a timed game mode runs out before a guess was
+     * submitted. The player has already lost one health.
+     *
+     * @param session The session whose turn timed out.
+     */
+    default void turnTimedOut(GameSession session) {
+    }
+
+    /**
+     * Called when the hidden letters of a stage have all been guessed.
+     *
+     * @param session The session whose stage was cleared.
+     * @param stage   The cleared stage.
+     */
+    default void stageCleared(GameSession session, Stage stage) {
+    }
+
+    /**
+     * Called once when the game ends.
+     *
+     * @param session The session whose game ended.
+     * @param won     True if every stage was cleared, false if the player ran out of health.
+     */
+    default void gameEnded(GameSession session, boolean won) {
+    }
+}
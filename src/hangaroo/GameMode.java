@@ -1,15 +1,23 @@
+package hangaroo;
+
 /**
  * The {@code GameMode} enum represents different game modes in a word-guessing game,
  * each associated with a specific maximum number of words per difficulty level.
  *
  * <p>
- * The enum defines two game modes, SURVIVAL and CLASSIC, each with a predefined
+ * The enum defines three game modes, SURVIVAL, CLASSIC and BLITZ, each with a predefined
  * maximum number of words per difficulty level. The maximum number of words is a
  * constant value specific to each game mode and can be accessed using the
  * {@code MAX_WORDS_PER_DIFFICULTY} field.
  * </p>
  *
  * <p>
+ * BLITZ plays like SURVIVAL, but every guess is on the clock: the player has
+ * {@code TURN_MILLIS} milliseconds per guess and loses one health whenever the time
+ * runs out. Modes without a turn clock have a {@code TURN_MILLIS} of 0.
+ * </p>
+ *
+ * <p>
  * The enum is designed to provide a convenient way to specify and manage the
  * characteristics of different game modes. 
  * </p>
@@ -31,12 +39,15 @@
  * @version 1.0
  */
 public enum GameMode {
-    SURVIVAL(50),
-    CLASSIC(5);
+    SURVIVAL(50, 0),
+    CLASSIC(5, 0),
+    BLITZ(50, 10_000);
 
     public final int MAX_WORDS_PER_DIFFICULTY;
+    public final long TURN_MILLIS;
 
-    GameMode(int maxWords) {
+    GameMode(int maxWords, long turnMillis) {
         this.MAX_WORDS_PER_DIFFICULTY = maxWords;
+        this.TURN_MILLIS = turnMillis;
     }
 }
\ No newline at end of file
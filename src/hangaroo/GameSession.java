@@ -0,0 +1,333 @@
+package hangaroo;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The {@code GameSession} class runs one game of Bootleg Hangaroo without any console
+ * input or output.
+ *
+ * <p>
+ * All state of the game, including the current stage number, lives in the session,
+ * so any number of sessions can run side by side in one JVM. Guesses are submitted
+ * through {@link #submitGuess(char)}, which applies the game rules and returns a
+ * {@link GuessResult}; the session reports what happened to its {@link GameListener}
+ * instead of printing. The console UI is one such listener.
+ * </p>
+ *
+ * <p>
+ * In game modes with a turn clock, every guess must arrive within
+ * {@code GameMode.TURN_MILLIS}. The clock runs on the shared {@link TimingWheel}, whose
+ * thread only hands an expired turn to a virtual thread, so events may also be emitted
+ * from there. The state of the session is guarded by its monitor, but listeners are
+ * always called after the monitor has been released: a listener may lock its own
+ * resources and read the session without any lock ordering to get wrong. The events
+ * of one session are still delivered one at a time and in order.
+ * </p>
+ *
+ * <p>
+ * Every random choice of the session, from the order of the words to the hidden
+ * letters of each stage, comes from one {@code SplittableRandom}. Passing the same
+ * seed reproduces a game exactly. The session reuses a single {@link Stage} for all of
+ * its stages, so starting a stage does not allocate.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre>
+ * {@code
+ * GameSession session = new GameSession(GameMode.CLASSIC, new Player("Jom"), Difficulty.EASY, listener);
+ * session.start();
+ * while (session.isPlaying()) {
+ *     session.submitGuess(nextLetter());
+ * }
+ * }
+ * </pre>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+public final class GameSession {
+
+    private static final GameListener NO_LISTENER = new GameListener() {
+    };
+
+    private final GameMode gameMode;
+    private final Player player;
+    private final Difficulty difficulty;
+    private final GameListener listener;
+    // Serializes the events of the session; never taken while holding the session's monitor
+    private final Object events = new Object();
+    private WordGenerator wordGenerator;
+    private Leaderboard leaderboard;
+    private final TimingWheel.Timeout turnTimeout;
+    private final long seed;
+    private final SplittableRandom random;
+    private final Stage stage = new Stage();
+    private int stageNumber;
+    private volatile boolean playing;
+    private boolean weighted;
+    private SeenWords history;
+    private long turnDeadline;
+
+    /**
+     * Creates a session for one game.
+     *
+     * @param gameMode   The game mode to play.
+     * @param player     The player of the game.
+     * @param difficulty The difficulty of the words.
+     * @param listener   The listener notified of the game's events, or {@code null} for none.
+     */
+    public GameSession(GameMode gameMode, Player player, Difficulty difficulty, GameListener listener) {
+        this(gameMode, player, difficulty, listener, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Creates a session for one game whose words and hidden letters are derived from a
+     * seed. Two sessions with the same seed, mode and difficulty that receive the same
+     * guesses play out identically.
+     *
+     * @param gameMode   The game mode to play.
+     * @param player     The player of the game.
+     * @param difficulty The difficulty of the words.
+     * @param listener   The listener notified of the game's events, or {@code null} for none.
+     * @param seed       The seed of the session's random generator.
+     */
+    public GameSession(GameMode gameMode, Player player, Difficulty difficulty, GameListener listener, long seed) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+        this.gameMode = gameMode;
+        this.player = player;
+        this.difficulty = difficulty;
+        this.listener = listener != null ? listener : NO_LISTENER;
+        this.turnTimeout = gameMode.TURN_MILLIS > 0 ? new TimingWheel.Timeout(this::turnClockFired) : null;
+    }
+
+    /**
+     * Starts the game: resets the player's health, tokens and score and begins the
+     * first stage.
+     */
+    public void start() {
+        synchronized (events) {
+            synchronized (this) {
+                player.resetStats();
+                wordGenerator = new WordGenerator(WordCorpus.get(), random);
+                wordGenerator.setHistory(history);
+                leaderboard = Leaderboard.of(gameMode, difficulty);
+                stageNumber = Stage.MIN_STAGE;
+                playing = true;
+            }
+            nextStage();
+        }
+    }
+
+    /**
+     * Applies a guess to the current stage.
+     *
+     * @param letter The guessed letter.
+     * @return The outcome of the guess.
+     */
+    public GuessResult submitGuess(char letter) {
+        synchronized (events) {
+            GuessResult result;
+            synchronized (this) {
+                if (!playing) {
+                    return GuessResult.NOT_PLAYING;
+                }
+                result = applyGuess(letter);
+            }
+            listener.guessed(this, letter, result);
+            switch (result) {
+                case STAGE_CLEARED -> {
+                    // The stage is reset only after the listener has seen the cleared word
+                    listener.stageCleared(this, stage);
+                    nextStage();
+                }
+                case GAME_WON -> {
+                    listener.stageCleared(this, stage);
+                    endGame(true);
+                }
+                case GAME_OVER -> endGame(false);
+                default -> {
+                }
+            }
+            return result;
+        }
+    }
+
+    private GuessResult applyGuess(char letter) {
+        GuessResult result;
+        if (stage.guessLetter(Character.toUpperCase(letter))) {
+            result = stage.getIsGuessed() ? clearStage() : GuessResult.CORRECT;
+        } else {
+            player.decHealth();
+            result = player.getHealth() == Player.NO_HEALTH ? GuessResult.GAME_OVER : GuessResult.WRONG;
+        }
+        switch (result) {
+            case GAME_WON -> stopGame(true);
+            case GAME_OVER -> stopGame(false);
+            // A cleared stage gets a fresh clock so it cannot time out before the next stage begins
+            default -> startTurnClock();
+        }
+        return result;
+    }
+
+    private GuessResult clearStage() {
+        recordOutcome(true);
+        player.incScore();
+        stageNumber++;
+        if (gameMode == GameMode.CLASSIC && stageNumber > gameMode.MAX_WORDS_PER_DIFFICULTY) {
+            return GuessResult.GAME_WON;
+        }
+        return GuessResult.STAGE_CLEARED;
+    }
+
+    private void nextStage() {
+        synchronized (this) {
+            Word word = weighted ? wordGenerator.generateWeightedWord(difficulty) : wordGenerator.generateWord(difficulty);
+            stage.reset(word, difficulty, random);
+            startTurnClock();
+        }
+        listener.stageStarted(this);
+    }
+
+    private void startTurnClock() {
+        if (turnTimeout != null) {
+            turnDeadline = System.nanoTime() + gameMode.TURN_MILLIS * 1_000_000;
+            TimingWheel.shared().schedule(turnTimeout, gameMode.TURN_MILLIS);
+        }
+    }
+
+    private void turnClockFired() {
+        // The wheel thread drives every session's clock, so it must never wait on one of them
+        Thread.ofVirtual().name("turn-clock").start(this::turnExpired);
+    }
+
+    private void turnExpired() {
+        synchronized (events) {
+            boolean gameOver;
+            synchronized (this) {
+                if (!playing) {
+                    return;
+                }
+                long remainingNanos = turnDeadline - System.nanoTime();
+                if (remainingNanos > 0) {
+                    // The wheel rounds to whole ticks and may fire slightly early
+                    TimingWheel.shared().schedule(turnTimeout, Math.max(1, remainingNanos / 1_000_000));
+                    return;
+                }
+                player.decHealth();
+                gameOver = player.getHealth() == Player.NO_HEALTH;
+                if (gameOver) {
+                    stopGame(false);
+                } else {
+                    startTurnClock();
+                }
+            }
+            listener.turnTimedOut(this);
+            if (gameOver) {
+                endGame(false);
+            }
+        }
+    }
+
+    private void recordOutcome(boolean won) {
+        if (weighted) {
+            WordWeights.shared().recordOutcome(difficulty, wordGenerator.getLastIndex(difficulty), won);
+        }
+    }
+
+    private void stopGame(boolean won) {
+        if (!won) {
+            recordOutcome(false);
+        }
+        playing = false;
+        if (turnTimeout != null) {
+            TimingWheel.shared().cancel(turnTimeout);
+        }
+    }
+
+    private void endGame(boolean won) {
+        // The file writes happen after the session's monitor has been released
+        if (history != null) {
+            history.save();
+        }
+        leaderboard.update(player);
+        listener.gameEnded(this, won);
+    }
+
+    public boolean isPlaying() {
+        return playing;
+    }
+
+    public GameMode getGameMode() {
+        return gameMode;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * Chooses whether the words of the game are drawn by weight from the shared
+     * {@link WordWeights} instead of from the shuffled deck. When enabled, the outcome
+     * of every stage is recorded to feed the win-rate weighting.
+     *
+     * @param weighted True to draw words by weight.
+     */
+    public synchronized void setWeighted(boolean weighted) {
+        this.weighted = weighted;
+    }
+
+    /**
+     * Attaches the player's persistent history of seen words. Words seen in earlier
+     * games are skipped when dealing from the deck, and the history is saved when the
+     * game ends.
+     *
+     * @param history The player's history, or {@code null} to not track one.
+     */
+    public synchronized void setHistory(SeenWords history) {
+        this.history = history;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public synchronized Stage getStage() {
+        return stage;
+    }
+
+    public synchronized int getStageNumber() {
+        return stageNumber;
+    }
+
+    /**
+     * Takes a consistent copy of what a client shows for the current turn, so the turn
+     * can be drawn without holding the session's monitor.
+     *
+     * @return The current turn.
+     */
+    public synchronized Turn currentTurn() {
+        return new Turn(stageNumber, player.getHealth(), player.getToken(), player.getScore(),
+                stage.retrieveGuessedLetters(), stage.getWord().getDescription());
+    }
+
+    /**
+     * A copy of the state of one turn, taken by {@link #currentTurn()}.
+     *
+     * @param stageNumber    The number of the current stage.
+     * @param health         The player's health.
+     * @param token          The player's tokens.
+     * @param score          The player's score.
+     * @param guessedLetters The word with its hidden letters masked.
+     * @param description    The description of the word.
+     */
+    public record Turn(int stageNumber, int health, int token, int score, String guessedLetters, String description) {
+    }
+}
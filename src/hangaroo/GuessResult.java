@@ -0,0 +1,49 @@
+package hangaroo;
+
+/**
+ * The {@code GuessResult} enum represents the outcome of submitting a guess to a
+ * {@code GameSession}.
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+public enum GuessResult {
+    /**
+     * The letter was hidden in the word and has been revealed.
+     */
+    CORRECT,
+
+    /**
+     * The letter was not hidden in the word; the player lost one health.
+     */
+    WRONG,
+
+    /**
+     * The guess revealed the last hidden letter and the stage was cleared.
+     */
+    STAGE_CLEARED,
+
+    /**
+     * The guess cleared the last stage of the game.
+     */
+    GAME_WON,
+
+    /**
+     * The guess cost the player their last health.
+     */
+    GAME_OVER,
+
+    /**
+     * No game is in progress, so the guess was ignored.
+     */
+    NOT_PLAYING;
+
+    /**
+     * Checks whether the guessed letter was in the word.
+     *
+     * @return True if the guess revealed a letter.
+     */
+    public boolean isCorrect() {
+        return this == CORRECT || this == STAGE_CLEARED || this == GAME_WON;
+    }
+}
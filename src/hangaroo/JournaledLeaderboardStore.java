@@ -0,0 +1,991 @@
+package hangaroo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * The {@code JournaledLeaderboardStore} class keeps the leaderboard in memory, in a
+ * {@link LeaderboardIndex}, and makes every score update durable with one small append
+ * to a journal file.
+ *
+ * <p>
+ * The leaderboard on disk is a snapshot, the XML file written by {@link Leaderboard},
+ * plus a journal of the updates made since that snapshot. An update only appends one
+ * record to the journal, so a burst of finished games costs O(1) file work per game
+ * instead of rewriting the whole leaderboard each time.
+ * </p>
+ *
+ * <p>
+ * The appends are written behind. {@link #update(String, int)} changes the scores in
+ * memory, where readers see them at once, and queues the player for a flush; it never
+ * touches the disk. Updates to the same player while queued are coalesced into one
+ * record. The queue is flushed in one write, synced to the device, once it holds
+ * {@code hangaroo.leaderboard.batchSize} players (default 64) or its oldest update is
+ * {@code hangaroo.leaderboard.flushMillis} old (default 200), so a burst of games costs
+ * one sync rather than one per game. Flushes and compactions of every store in the
+ * process run on one small pool of daemon threads, so opening every board costs no
+ * threads of its own. The stores opened with {@link #open(Path, Path)} flush a last
+ * time from one shared shutdown hook; updates still queued when the process crashes or loses power
+ * are lost, flushed ones are not. A flush that fails puts its players back in the queue
+ * for the next one to retry. {@link #getMetrics()} reports the queue depth and how long flushes take, and
+ * {@code -Dhangaroo.leaderboard.metrics=true} prints them at shutdown.
+ * </p>
+ *
+ * <p>
+ * Several game processes can share the same files. Every change to them is made while
+ * holding an exclusive {@link FileLock} on a separate lock file, and the lock is only
+ * held for short steps, never while the snapshot is written. A flush first reads the
+ * records other processes have appended since this process last read the journal, then
+ * appends its own batch after them, so the journal is one ordered history and the last
+ * update of a player wins in every process. A record of another process does not
+ * override an update of this process that is still queued, since that update will be
+ * appended after it. One {@link WatchService} for the whole process watches the
+ * directories of the open stores and tells a store when another process has written
+ * its files, and it catches up at once by reading only the new records.
+ * </p>
+ *
+ * <p>
+ * Reads never touch the disk: every {@link Leaderboard} in the process shares this
+ * store and is answered from memory. The store reloads only when the files change. It
+ * remembers the modification time, size and content hash of the snapshot it loaded or
+ * wrote, and the watcher, or the next flush, reloads the leaderboard when the snapshot
+ * is replaced or edited outside the game. A snapshot whose time or size changed but
+ * whose content did not, such as one that was only touched, is not parsed again.
+ * </p>
+ *
+ * <p>
+ * Once the journal holds {@code hangaroo.journalCompactThreshold} records (default
+ * 1000), a background thread compacts it. A new snapshot is written from memory without
+ * the lock. Then, under the lock, the records appended in the meantime are copied into
+ * a new journal with the next generation number, and the new snapshot and the new
+ * journal are renamed over the old ones. A process that finds the journal replaced
+ * reloads the snapshot and the new journal. An update replaces a player's score, so
+ * replaying a record the snapshot already covers is harmless, and a crash between the
+ * two renames loses nothing. A record torn by a crash fails its checksum; it and
+ * anything after it is cut off the journal. A snapshot that cannot be parsed is never
+ * compacted over: the store runs on the journal alone and compaction stays off until
+ * the snapshot is repaired or replaced.
+ * </p>
+ *
+ * <p>
+ * The journal is laid out as follows (all integers big-endian):
+ * </p>
+ * <pre>
+ * header  int magic, int version, long generation
+ * record  int nameLength, name bytes (UTF-8), int score, int crc32 of the preceding fields
+ * </pre>
+ *
+ * <p>
+ * Journals of version 1, which have no generation, are still read and are rewritten
+ * in the current layout by the next compaction.
+ * </p>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+final class JournaledLeaderboardStore implements LeaderboardStore {
+
+    /**
+     * The path of the journal of the default leaderboard.
+     */
+    public static final String JOURNAL_PATH = "BootlegHangaroo/AppData/Leaderboard/Leaderboard.journal";
+
+    private static final int MAGIC = 0x42484C4A; // "BHLJ"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = Integer.BYTES * 2 + Long.BYTES;
+    private static final int LEGACY_VERSION = 1;
+    private static final int LEGACY_HEADER_SIZE = Integer.BYTES * 2;
+    private static final int MAX_NAME_LENGTH = 1024;
+
+    /**
+     * A snapshot of the write-behind queue and of the flushes done so far.
+     */
+    record Metrics(int queueDepth, long flushes, long recordsWritten, long lastFlushNanos, long maxFlushNanos,
+                   long totalFlushNanos) {
+        @Override
+        public String toString() {
+            return String.format("Leaderboard journal: %d queued, %d flushes, %d records, "
+                            + "flush latency last %.3f ms, max %.3f ms, mean %.3f ms",
+                    queueDepth, flushes, recordsWritten, lastFlushNanos / 1_000_000.0, maxFlushNanos / 1_000_000.0,
+                    flushes == 0 ? 0.0 : totalFlushNanos / (flushes * 1_000_000.0));
+        }
+    }
+
+    private static final class Holder {
+        static final JournaledLeaderboardStore INSTANCE = open(
+                Path.of(Leaderboard.FilePath.LEADERBOARD_PATH.getPath()), Path.of(JOURNAL_PATH));
+    }
+
+    /**
+     * Flushes and compacts every store of the process. Two threads let one store flush
+     * while another writes its snapshot.
+     */
+    private static final ScheduledExecutorService WORKERS = Executors.newScheduledThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "leaderboard-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Flushes the stores opened with {@link #open(Path, Path)} when the process exits.
+     */
+    private static final class ShutdownHook {
+        private static final List<JournaledLeaderboardStore> STORES = new CopyOnWriteArrayList<>();
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(ShutdownHook::run, "leaderboard-shutdown"));
+        }
+
+        static void register(JournaledLeaderboardStore store) {
+            STORES.add(store);
+        }
+
+        private static void run() {
+            for (JournaledLeaderboardStore store : STORES) {
+                store.flush();
+                if (Boolean.getBoolean("hangaroo.leaderboard.metrics")) {
+                    System.err.println(store.journal.getFileName() + ": " + store.getMetrics());
+                }
+            }
+        }
+    }
+
+    /**
+     * Watches the directories of every open store on one thread, and refreshes a store
+     * when its snapshot or journal changes.
+     */
+    private static final class Watcher {
+        static final Watcher INSTANCE = new Watcher();
+
+        private final WatchService service;
+        private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+        private final Map<Path, Set<JournaledLeaderboardStore>> stores = new ConcurrentHashMap<>();
+
+        private Watcher() {
+            WatchService service = null;
+            try {
+                service = FileSystems.getDefault().newWatchService();
+                Thread thread = new Thread(this::run, "leaderboard-watcher");
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                // Outside changes are then only picked up by the next flush
+            }
+            this.service = service;
+        }
+
+        void register(JournaledLeaderboardStore store) {
+            if (service == null) {
+                return;
+            }
+            for (Path file : List.of(store.journal, store.snapshot)) {
+                Path path = file.toAbsolutePath().normalize();
+                stores.computeIfAbsent(path, p -> new CopyOnWriteArraySet<>()).add(store);
+                try {
+                    // Registering a directory again returns the key it already has
+                    directories.put(path.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY), path.getParent());
+                } catch (IOException e) {
+                    // Outside changes to this store are then only picked up by the next flush
+                }
+            }
+        }
+
+        void unregister(JournaledLeaderboardStore store) {
+            for (Path file : List.of(store.journal, store.snapshot)) {
+                stores.computeIfPresent(file.toAbsolutePath().normalize(), (path, watching) -> {
+                    watching.remove(store);
+                    return watching.isEmpty() ? null : watching;
+                });
+            }
+        }
+
+        private void run() {
+            try {
+                while (true) {
+                    WatchKey key = service.take();
+                    Path directory = directories.get(key);
+                    Set<JournaledLeaderboardStore> changed = new LinkedHashSet<>();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            stores.forEach((path, watching) -> {
+                                if (path.getParent().equals(directory)) {
+                                    changed.addAll(watching);
+                                }
+                            });
+                        } else if (directory != null) {
+                            changed.addAll(stores.getOrDefault(directory.resolve((Path) event.context()), Set.of()));
+                        }
+                    }
+                    changed.forEach(JournaledLeaderboardStore::refresh);
+                    if (!key.reset()) {
+                        directories.remove(key);
+                    }
+                }
+            } catch (ClosedWatchServiceException | InterruptedException e) {
+                // The process is exiting
+            }
+        }
+    }
+
+    private final Path snapshot;
+    private final Path journal;
+    private final Path lockFile;
+    private final Path legacyCompacting;
+    private final int compactThreshold;
+    private final int batchSize;
+    private final long flushDelayNanos;
+    private volatile LeaderboardIndex scores = new LeaderboardIndex();
+    private volatile long scoresVersion;
+    private Map<String, Integer> queued = new LinkedHashMap<>();
+    // The flush of the oldest queued update, once it is due
+    private ScheduledFuture<?> scheduledFlush;
+    // Taken shared by updates and exclusively to apply other processes' records or swap in a
+    // reloaded index, so neither can land between an update's upsert and its hand-off to the queue
+    private final ReadWriteLock applyLock = new ReentrantReadWriteLock();
+
+    // Guards the journal state below; taken before the store's own lock when both are needed
+    private final Object journalLock = new Object();
+    private final CRC32 crc = new CRC32();
+    private FileChannel lockChannel;
+    private FileChannel channel;
+    private Object channelKey;
+    private long generation;
+    private int dataStart;
+    private long readPosition;
+    private int journalRecords;
+    private long snapshotModified = -1;
+    private long snapshotSize = -1;
+    private long snapshotHash;
+    private boolean snapshotUnreadable;
+
+    // Flushes run on the worker pool and the shutdown hook
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong recordsWritten = new AtomicLong();
+    private volatile long lastFlushNanos;
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private volatile boolean closed;
+    private final AtomicBoolean compactionPending = new AtomicBoolean();
+    private Future<?> compaction;
+
+    /**
+     * Opens a store, recovering its contents from the snapshot and journal.
+     *
+     * @param snapshot         The path of the XML snapshot.
+     * @param journal          The path of the journal.
+     * @param compactThreshold The number of journal records that triggers a compaction.
+     * @param batchSize        The number of queued players that triggers a flush.
+     * @param flushMillis      The longest an update waits in the queue before it is flushed.
+     */
+    JournaledLeaderboardStore(Path snapshot, Path journal, int compactThreshold, int batchSize, long flushMillis) {
+        this.snapshot = snapshot;
+        this.journal = journal;
+        this.lockFile = journal.resolveSibling(journal.getFileName() + ".lock");
+        this.legacyCompacting = journal.resolveSibling(journal.getFileName() + ".compacting");
+        this.compactThreshold = Math.max(compactThreshold, 1);
+        this.batchSize = Math.max(batchSize, 1);
+        this.flushDelayNanos = TimeUnit.MILLISECONDS.toNanos(flushMillis);
+        synchronized (journalLock) {
+            try {
+                Files.createDirectories(journal.toAbsolutePath().getParent());
+                // The lock file is never replaced, so every process locks the same file
+                lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                FileLock lock = lockChannel.lock();
+                try {
+                    reload();
+                } finally {
+                    lock.release();
+                }
+                if (dataStart == LEGACY_HEADER_SIZE || Files.exists(legacyCompacting)) {
+                    requestCompaction();
+                }
+                deleteAbandonedFiles();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        Watcher.INSTANCE.register(this);
+    }
+
+    /**
+     * Opens a store configured by the {@code hangaroo.*} system properties and flushes
+     * it from the shared shutdown hook when the process exits.
+     *
+     * @param snapshot The path of the XML snapshot.
+     * @param journal  The path of the journal.
+     * @return The opened store.
+     */
+    static JournaledLeaderboardStore open(Path snapshot, Path journal) {
+        JournaledLeaderboardStore store = new JournaledLeaderboardStore(snapshot, journal,
+                Integer.getInteger("hangaroo.journalCompactThreshold", 1000),
+                Integer.getInteger("hangaroo.leaderboard.batchSize", 64),
+                Long.getLong("hangaroo.leaderboard.flushMillis", 200));
+        ShutdownHook.register(store);
+        return store;
+    }
+
+    /**
+     * Retrieves the store of the default leaderboard, recovering it on first use.
+     *
+     * @return The shared store.
+     */
+    static JournaledLeaderboardStore shared() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Records the score of a player in memory and queues it for the journal. Does not
+     * wait for the disk. A name longer than a journal record allows is cut short here,
+     * so the scores, the journal and the snapshot all know the player by the same name.
+     *
+     * @param name  The name of the player.
+     * @param score The player's score.
+     */
+    @Override
+    public void update(String name, int score) {
+        name = truncate(name);
+        // Shared: updates only contend on the index's shard locks and the short hand-off below
+        applyLock.readLock().lock();
+        try {
+            Integer previous = scores.upsert(name, score);
+            if (previous != null && previous == score) {
+                return;
+            }
+            synchronized (this) {
+                scoresVersion++;
+                if (queued.isEmpty()) {
+                    scheduleFlush();
+                }
+                // Queue the index's current score, so racing updates of one player journal the last one
+                queued.put(name, scores.score(name));
+                if (queued.size() == batchSize) {
+                    WORKERS.execute(this::flushQueued);
+                }
+            }
+        } finally {
+            applyLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Entry> top(int limit) {
+        return scores.top(limit);
+    }
+
+    @Override
+    public int rank(String name) {
+        return scores.rank(truncate(name));
+    }
+
+    @Override
+    public List<Entry> around(String name, int radius) {
+        return scores.around(truncate(name), radius);
+    }
+
+    @Override
+    public int size() {
+        return scores.size();
+    }
+
+    @Override
+    public long version() {
+        return scoresVersion;
+    }
+
+    /**
+     * Writes every queued update to the journal on the calling thread, after the
+     * records other processes have written.
+     */
+    void flush() {
+        long start = System.nanoTime();
+        int written;
+        Map<String, Integer> batch = Map.of();
+        synchronized (journalLock) {
+            synchronized (this) {
+                if (queued.isEmpty()) {
+                    return;
+                }
+            }
+            try {
+                FileLock lock = lockChannel.lock();
+                try {
+                    catchUp();
+                    synchronized (this) {
+                        batch = takeQueued();
+                    }
+                    written = append(batch);
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+                requeue(batch);
+                return;
+            }
+            journalRecords += written;
+        }
+        long nanos = System.nanoTime() - start;
+        lastFlushNanos = nanos;
+        maxFlushNanos.accumulateAndGet(nanos, Math::max);
+        totalFlushNanos.addAndGet(nanos);
+        recordsWritten.addAndGet(written);
+        flushes.incrementAndGet();
+        if (journalRecords >= compactThreshold) {
+            requestCompaction();
+        }
+    }
+
+    /**
+     * Reads the records other processes have written since the last read, or reloads
+     * the leaderboard if another process has replaced the journal.
+     */
+    void refresh() {
+        synchronized (journalLock) {
+            if (closed) {
+                return;
+            }
+            try {
+                FileLock lock = lockChannel.lock();
+                try {
+                    catchUp();
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Retrieves the current queue depth and the flush statistics.
+     *
+     * @return The metrics of the write-behind queue.
+     */
+    Metrics getMetrics() {
+        int queueDepth;
+        synchronized (this) {
+            queueDepth = queued.size();
+        }
+        return new Metrics(queueDepth, flushes.get(), recordsWritten.get(), lastFlushNanos, maxFlushNanos.get(),
+                totalFlushNanos.get());
+    }
+
+    /**
+     * Writes a new snapshot and replaces the journal with one that holds only the
+     * records the snapshot may miss. Called on the worker pool; the lock is not
+     * held while the snapshot is written, so other processes keep appending meanwhile.
+     *
+     * @throws IOException If the snapshot or the new journal cannot be written.
+     */
+    void compact() throws IOException {
+        flush();
+        long covered;
+        long coveredGeneration;
+        synchronized (journalLock) {
+            FileLock lock = lockChannel.lock();
+            try {
+                catchUp();
+            } finally {
+                lock.release();
+            }
+            if (snapshotUnreadable) {
+                return;
+            }
+            covered = readPosition;
+            coveredGeneration = generation;
+        }
+
+        long pid = ProcessHandle.current().pid();
+        Path nextSnapshot = snapshot.resolveSibling(snapshot.getFileName() + "." + pid + ".next");
+        Path nextJournal = journal.resolveSibling(journal.getFileName() + "." + pid + ".next");
+        // Every record up to the covered position is in the copy
+        Map<String, Integer> copy = new HashMap<>();
+        scores.forEach(copy::put);
+        Leaderboard.writeXml(nextSnapshot, copy);
+
+        synchronized (journalLock) {
+            FileLock lock = lockChannel.lock();
+            try {
+                catchUp();
+                if (generation != coveredGeneration || snapshotUnreadable) {
+                    // Another process compacted first
+                    return;
+                }
+                ByteBuffer tail = read(covered, (int) (readPosition - covered));
+                try (FileChannel next = FileChannel.open(nextJournal, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    writeFully(next, header(generation + 1), 0);
+                    writeFully(next, tail, HEADER_SIZE);
+                    next.force(true);
+                }
+                Files.move(nextSnapshot, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                recordSnapshot();
+                Files.move(nextJournal, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                Files.deleteIfExists(legacyCompacting);
+
+                long kept = readPosition - covered;
+                openJournal();
+                readPosition = dataStart + kept;
+                journalRecords = 0;
+            } finally {
+                lock.release();
+                Files.deleteIfExists(nextSnapshot);
+                Files.deleteIfExists(nextJournal);
+            }
+        }
+    }
+
+    /**
+     * Deletes the new snapshots and journals left behind by processes that exited in
+     * the middle of a compaction.
+     */
+    private void deleteAbandonedFiles() throws IOException {
+        Path directory = journal.toAbsolutePath().getParent();
+        String snapshotName = snapshot.getFileName() + ".";
+        String journalName = journal.getFileName() + ".";
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.next*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String rest = name.startsWith(snapshotName) ? name.substring(snapshotName.length())
+                        : name.startsWith(journalName) ? name.substring(journalName.length()) : null;
+                int dot = rest == null ? -1 : rest.indexOf('.');
+                if (dot <= 0) {
+                    continue;
+                }
+                try {
+                    long pid = Long.parseLong(rest.substring(0, dot));
+                    if (ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false)) {
+                        continue;
+                    }
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Flushes the queued updates, waits for a running compaction and closes the files.
+     * The store must not be used afterwards.
+     */
+    void close() {
+        Future<?> pending;
+        synchronized (this) {
+            closed = true;
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+            pending = compaction;
+        }
+        Watcher.INSTANCE.unregister(this);
+        flush();
+        try {
+            if (pending != null) {
+                pending.get(1, TimeUnit.MINUTES);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            e.printStackTrace();
+        }
+        synchronized (journalLock) {
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+                if (lockChannel != null) {
+                    lockChannel.close();
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private synchronized void requestCompaction() {
+        if (!closed && compactionPending.compareAndSet(false, true)) {
+            compaction = WORKERS.submit(() -> {
+                compactionPending.set(false);
+                try {
+                    compact();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            });
+        }
+    }
+
+    /**
+     * Schedules a flush for when an update queued now is due. Must be called while
+     * holding the store's lock, as the queue stops being empty.
+     */
+    private void scheduleFlush() {
+        if (!closed) {
+            scheduledFlush = WORKERS.schedule(this::flushQueued, flushDelayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void flushQueued() {
+        if (closed) {
+            // close flushes a last time itself
+            return;
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private Map<String, Integer> takeQueued() {
+        Map<String, Integer> batch = queued;
+        if (!batch.isEmpty()) {
+            queued = new LinkedHashMap<>();
+            if (scheduledFlush != null) {
+                // The batch is flushed now, so its scheduled flush has nothing left to do
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Puts a batch that could not be written back in the queue, so the next flush
+     * retries it. A score queued for the same player since then is newer and is kept.
+     */
+    private synchronized void requeue(Map<String, Integer> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> retry = new LinkedHashMap<>(batch);
+        retry.putAll(queued);
+        if (queued.isEmpty()) {
+            // Waits out the flush delay before retrying, rather than spinning on a failing disk
+            scheduleFlush();
+        }
+        queued = retry;
+    }
+
+    /**
+     * Cuts a name down to the longest prefix of whole characters that fits in a
+     * journal record.
+     */
+    private static String truncate(String name) {
+        // No character takes more than three bytes in UTF-8
+        if (name.length() <= MAX_NAME_LENGTH / 3) {
+            return name;
+        }
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_NAME_LENGTH) {
+            return name;
+        }
+        int end = MAX_NAME_LENGTH;
+        while ((bytes[end] & 0xC0) == 0x80) {
+            // Backs off to the start of the character the limit splits
+            end--;
+        }
+        return new String(bytes, 0, end, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Applies the records appended to the journal since the last read. Must be called
+     * while holding the file lock.
+     */
+    private void catchUp() throws IOException {
+        long size = channel == null || journalReplaced() || snapshotChanged() ? -1 : channel.size();
+        if (size < readPosition) {
+            reload();
+            return;
+        }
+        if (size == readPosition) {
+            return;
+        }
+        ByteBuffer buffer = read(readPosition, (int) (size - readPosition));
+        Map<String, Integer> records = new LinkedHashMap<>();
+        int valid = parse(buffer, records);
+        applyLock.writeLock().lock();
+        try {
+            synchronized (this) {
+                for (Map.Entry<String, Integer> record : records.entrySet()) {
+                    // An update still queued here will be appended after this record, so it wins
+                    if (!queued.containsKey(record.getKey())) {
+                        scores.upsert(record.getKey(), record.getValue());
+                    }
+                }
+                scoresVersion++;
+            }
+        } finally {
+            applyLock.writeLock().unlock();
+        }
+        journalRecords += records.size();
+        readPosition += valid;
+        if (readPosition < size) {
+            channel.truncate(readPosition);
+        }
+    }
+
+    /**
+     * Rebuilds the scores from the snapshot and the journal on disk. Must be called
+     * while holding the file lock.
+     */
+    private void reload() throws IOException {
+        openJournal();
+        LeaderboardIndex index = new LeaderboardIndex();
+        recordSnapshot();
+        try {
+            Leaderboard.readXml(snapshot).forEach(index::upsert);
+            snapshotUnreadable = false;
+        } catch (IOException e) {
+            if (!snapshotUnreadable) {
+                System.err.println("The leaderboard " + snapshot + " cannot be read and will not be compacted "
+                        + "until it is repaired: " + e.getMessage());
+            }
+            snapshotUnreadable = true;
+        }
+        Map<String, Integer> records = new LinkedHashMap<>();
+        if (Files.isRegularFile(legacyCompacting)) {
+            // Left over by an interrupted compaction of a version 1 journal
+            ByteBuffer legacy = ByteBuffer.wrap(Files.readAllBytes(legacyCompacting));
+            if (legacy.remaining() >= LEGACY_HEADER_SIZE && legacy.getInt() == MAGIC) {
+                legacy.position(LEGACY_HEADER_SIZE);
+                parse(legacy, records);
+            }
+        }
+
+        long size = channel.size();
+        int valid = parse(read(dataStart, (int) (size - dataStart)), records);
+        readPosition = dataStart + valid;
+        journalRecords = records.size();
+        if (readPosition < size) {
+            channel.truncate(readPosition);
+        }
+
+        records.forEach(index::upsert);
+        applyLock.writeLock().lock();
+        try {
+            synchronized (this) {
+                // Updates of this process not yet flushed are newer than anything on disk
+                queued.forEach(index::upsert);
+                scores = index;
+                scoresVersion++;
+            }
+        } finally {
+            applyLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Opens the current journal, creating it if needed, and reads its header.
+     */
+    private void openJournal() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        channel = FileChannel.open(journal, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        channelKey = Files.readAttributes(journal, BasicFileAttributes.class).fileKey();
+
+        ByteBuffer header = read(0, (int) Math.min(channel.size(), HEADER_SIZE));
+        int version = header.remaining() >= LEGACY_HEADER_SIZE && header.getInt(0) == MAGIC
+                ? header.getInt(Integer.BYTES) : 0;
+        if (version == LEGACY_VERSION) {
+            generation = 0;
+            dataStart = LEGACY_HEADER_SIZE;
+        } else if (version == VERSION && header.remaining() == HEADER_SIZE) {
+            generation = header.getLong(LEGACY_HEADER_SIZE);
+            dataStart = HEADER_SIZE;
+        } else {
+            // A new or unreadable journal starts over empty
+            channel.truncate(0);
+            writeFully(channel, header(1), 0);
+            generation = 1;
+            dataStart = HEADER_SIZE;
+        }
+    }
+
+    /**
+     * Checks whether the snapshot differs from the one last loaded or written. The
+     * content is only hashed when the modification time or size has changed.
+     */
+    private boolean snapshotChanged() throws IOException {
+        if (!Files.isRegularFile(snapshot)) {
+            return snapshotSize != -1;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(snapshot, BasicFileAttributes.class);
+        if (attributes.lastModifiedTime().toMillis() == snapshotModified && attributes.size() == snapshotSize) {
+            return false;
+        }
+        long hash = snapshotHash;
+        recordSnapshot();
+        return snapshotHash != hash;
+    }
+
+    /**
+     * Remembers the modification time, size and content hash of the snapshot on disk.
+     */
+    private void recordSnapshot() throws IOException {
+        if (!Files.isRegularFile(snapshot)) {
+            snapshotModified = -1;
+            snapshotSize = -1;
+            snapshotHash = 0;
+            return;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(snapshot, BasicFileAttributes.class);
+        crc.reset();
+        crc.update(Files.readAllBytes(snapshot));
+        snapshotModified = attributes.lastModifiedTime().toMillis();
+        snapshotSize = attributes.size();
+        snapshotHash = crc.getValue();
+    }
+
+    /**
+     * Checks whether another process has renamed a new journal over the open one.
+     */
+    private boolean journalReplaced() throws IOException {
+        if (!Files.exists(journal)) {
+            return true;
+        }
+        Object key = Files.readAttributes(journal, BasicFileAttributes.class).fileKey();
+        if (key != null && channelKey != null) {
+            return !Objects.equals(key, channelKey);
+        }
+        // Without file keys, compare the generations instead
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        try (FileChannel current = FileChannel.open(journal, StandardOpenOption.READ)) {
+            current.read(header, 0);
+        }
+        return header.position() < HEADER_SIZE || header.getLong(LEGACY_HEADER_SIZE) != generation;
+    }
+
+    /**
+     * Appends a batch at the end of the journal. Must be called while holding the file
+     * lock, right after catching up, so the batch goes after every record on disk.
+     *
+     * @return The number of records written.
+     */
+    private int append(Map<String, Integer> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        byte[][] names = new byte[batch.size()][];
+        int size = 0;
+        int i = 0;
+        for (String name : batch.keySet()) {
+            // Names were cut to MAX_NAME_LENGTH bytes by update
+            names[i] = name.getBytes(StandardCharsets.UTF_8);
+            size += Integer.BYTES * 3 + names[i].length;
+            i++;
+        }
+
+        // The whole batch goes out in one write
+        ByteBuffer records = ByteBuffer.allocate(size);
+        i = 0;
+        for (int score : batch.values()) {
+            byte[] name = names[i++];
+            int start = records.position();
+            records.putInt(name.length).put(name).putInt(score);
+            crc.reset();
+            crc.update(records.array(), start, records.position() - start);
+            records.putInt((int) crc.getValue());
+        }
+        records.flip();
+        writeFully(channel, records, readPosition);
+        // One sync per batch: a flushed update survives a power loss, not just a crash
+        channel.force(false);
+        // Our own records need not be read back
+        readPosition += size;
+        return names.length;
+    }
+
+    /**
+     * Parses the intact records at the start of a buffer, in order.
+     *
+     * @param buffer  The bytes of the records.
+     * @param records The map the records are put into; a later record of a player
+     *                replaces an earlier one.
+     * @return The number of bytes taken by the intact records.
+     */
+    private int parse(ByteBuffer buffer, Map<String, Integer> records) {
+        int begin = buffer.position();
+        int valid = begin;
+        while (buffer.remaining() >= Integer.BYTES * 3) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            if (length < 0 || length > MAX_NAME_LENGTH || buffer.remaining() < length + Integer.BYTES * 2) {
+                break;
+            }
+            String name = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            int score = buffer.getInt();
+            crc.reset();
+            crc.update(buffer.array(), start, buffer.position() - start);
+            if (buffer.getInt() != (int) crc.getValue()) {
+                break;
+            }
+            records.remove(name);
+            records.put(name, score);
+            valid = buffer.position();
+        }
+        return valid - begin;
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(length, 0));
+        while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) >= 0) {
+            // Read until the buffer is full or the file ends
+        }
+        return buffer.flip();
+    }
+
+    private static ByteBuffer header(long generation) {
+        return ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).putLong(generation).flip();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package hangaroo;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.Node;
+import org.w3c.dom.Element;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code Leaderboard} class manages a list of {@code Player} objects and provides methods
+ * to update and retrieve information from a leaderboard stored in an XML file.
+ *
+ * <p>
+ * The leaderboard is represented as an XML file, and the class allows for
+ * reading the existing leaderboard, updating it with new player information,
+ * and writing the updated leaderboard back to the XML file.
+ * </p>
+ *
+ * <p>
+ * Every game mode and difficulty has its own board, and a global board ranks the
+ * players of all of them together; see {@link LeaderboardShards}. The scores themselves
+ * are kept by a {@link LeaderboardStore}, shared by every {@code Leaderboard} of the same
+ * board in the process. By default this is the
+ * {@link JournaledLeaderboardStore}, which appends each update to a journal and
+ * periodically compacts it into the XML file; the {@link MappedLeaderboardStore} keeps
+ * fixed-size records in a memory-mapped file instead. Constructing a {@code Leaderboard}
+ * only wraps that store, so showing the board reads from memory and never parses the XML
+ * file again; the showing itself is done by {@link LeaderboardDisplay}. This class employs the Document Object Model (DOM) to read and write that
+ * XML snapshot.
+ * </p>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+class Leaderboard extends LeaderboardDisplay {
+
+    /**
+     * The store holding the scores of the leaderboard.
+     */
+    private final LeaderboardStore store;
+
+    /**
+     * The path to the default leaderboard XML file.
+     */
+    public static enum FilePath {
+        LEADERBOARD_PATH("BootlegHangaroo/AppData/Leaderboard/Leaderboard.xml");
+
+        private String path;
+
+        FilePath(String path) {
+            this.path = path;
+        }
+
+        public String getPath() {
+            return path;
+        }
+    }
+
+    /**
+     * Enum representing values used in leaderboard operations.
+     * 
+     * <p>
+     * This enum provides predefined values for specifying the maximum (MAX) and
+     * minimum (MIN) limits used in leaderboard-related operations, such as
+     * restricting the number of top players displayed.
+     * </p>
+     * 
+     * <p>
+     * Each enum constant is associated with an integer value, and this value can be
+     * retrieved using the {@code getValue()} method.
+     * </p>
+     */
+    public static enum LeaderboardValue {
+        MAX(10),
+        MIN(0);
+
+        private final int value;
+
+        private LeaderboardValue(int value) {
+            this.value = value;
+        }
+
+        public int getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * Enumeration representing tag names used in the XML structure of the leaderboard.
+     * 
+     * <p>
+     * This enumeration defines constants for key elements in the XML representation of
+     * the leaderboard. Each constant corresponds to a specific tag name, facilitating
+     * easy and consistent access to these names throughout the codebase.
+     * </p>
+     * 
+     * <p>
+     * Each enum constant is associated with a string value, and this value can be
+     * retrieved using the {@code getTagName()} method.
+     * </p>
+     */
+    public static enum TagName {
+        /**
+         * Represents the root element of the XML structure, typically encapsulating the
+         * entire leaderboard data.
+         */
+        LEADERBOARD("leaderboard"),
+
+        /**
+         * Represents an individual player element within the XML structure, containing
+         * information about a player's name and score.
+         */
+        PLAYER("player"),
+
+        /**
+         * Represents the name element within a player element, storing the player's name.
+         */
+        NAME("name"),
+
+        /**
+         * Represents the score element within a player element, storing the player's score.
+         */
+        SCORE("score");
+
+        private final String tagName;
+
+        private TagName(String tagName) {
+            this.tagName = tagName;
+        }
+        
+        public String getTagName() {
+            return tagName;
+        }
+    }
+
+    /**
+     * Constructs a new {@code Leaderboard} object over the shared store of the default
+     * leaderboard file.
+     *
+     * <p>
+     * The store is opened and recovered the first time a {@code Leaderboard} is
+     * created in the process; later leaderboards share the scores already loaded.
+     * </p>
+     */
+    Leaderboard() {
+        this(defaultStore());
+    }
+
+    /**
+     * Constructs a new {@code Leaderboard} object over the given store.
+     *
+     * @param store The store holding the scores.
+     */
+    Leaderboard(LeaderboardStore store) {
+        this(store, Art.SURVIVAL_LEADERBOARD);
+    }
+
+    /**
+     * Constructs a new {@code Leaderboard} object over the given store.
+     *
+     * @param store  The store holding the scores.
+     * @param banner The banner printed above the entries.
+     */
+    Leaderboard(LeaderboardStore store, String banner) {
+        this(store, banner, null);
+    }
+
+    private Leaderboard(LeaderboardStore store, String banner, String boardName) {
+        super(store, banner, boardName);
+        this.store = store;
+    }
+
+    /**
+     * Creates the leaderboard of a game mode and difficulty. Every pair has its own
+     * board, kept by {@link LeaderboardShards}.
+     *
+     * @param gameMode   The game mode of the board.
+     * @param difficulty The difficulty of the board.
+     * @return The board of the game mode and difficulty.
+     */
+    static Leaderboard of(GameMode gameMode, Difficulty difficulty) {
+        String art = switch (gameMode) {
+            case SURVIVAL -> Art.SURVIVAL_LEADERBOARD;
+            case CLASSIC -> Art.GAME_MODE_CLASSIC;
+            case BLITZ -> Art.GAME_MODE_BLITZ;
+        };
+        return new Leaderboard(LeaderboardShards.board(gameMode, difficulty), art + "Leaderboard - " + difficulty + "\n",
+                LeaderboardShards.name(gameMode, difficulty));
+    }
+
+    /**
+     * Creates the global leaderboard, which ranks every player by their best score on
+     * any board. The global leaderboard is read-only, so it is only a display.
+     *
+     * @return The global leaderboard.
+     */
+    static LeaderboardDisplay global() {
+        return new LeaderboardDisplay(LeaderboardShards.global(), Art.TITLE + "Leaderboard - all boards\n", null);
+    }
+
+    /**
+     * Retrieves the store of the default leaderboard: the {@link MappedLeaderboardStore}
+     * when {@code -Dhangaroo.leaderboard.store=mapped} is set, the
+     * {@link JournaledLeaderboardStore} otherwise.
+     *
+     * @return The shared default store.
+     */
+    static LeaderboardStore defaultStore() {
+        if ("mapped".equals(System.getProperty("hangaroo.leaderboard.store"))) {
+            return MappedLeaderboardStore.shared();
+        }
+        return JournaledLeaderboardStore.shared();
+    }
+
+    /**
+     * Updates the leaderboard with the provided {@code Player} object.
+     *
+     * <p>
+     * If a player with the same name is already on the leaderboard, that player's score
+     * is replaced with the current one. Otherwise, the player is added to the
+     * leaderboard. The update is handed to the store, which records it with a single
+     * append rather than rewriting the XML file. When a scoreboard service is
+     * configured, the score is also queued for it; see {@link ScoreboardClient}.
+     * </p>
+     *
+     * @param currPlayer The {@code Player} object to be updated or added to the leaderboard.
+     */
+    public void update(Player currPlayer) {
+        store.update(currPlayer.getName(), currPlayer.getScore());
+        ScoreboardClient scoreboard = ScoreboardClient.shared();
+        if (getBoardName() != null && scoreboard != null) {
+            scoreboard.submit(getBoardName(), currPlayer.getName(), currPlayer.getScore());
+        }
+    }
+
+    /**
+     * Reads the players and scores of a leaderboard XML file.
+     *
+     * <p>
+     * The XML file is expected to follow a specific structure, with player information
+     * encapsulated within player elements under the root leaderboard element. A missing
+     * or empty file is read as an empty leaderboard. A malformed one is an error, so that
+     * the scores it still holds are not taken for none and overwritten.
+     * </p>
+     *
+     * @param path The XML file to read.
+     * @return The score of every player in the file, by name.
+     * @throws IOException If the file cannot be read or is not a leaderboard.
+     */
+    static Map<String, Integer> readXml(Path path) throws IOException {
+        Map<String, Integer> scores = new HashMap<>();
+        if (!Files.isRegularFile(path) || Files.size(path) == 0) {
+            return scores;
+        }
+        try {
+            // Parse the XML file using DOM and normalize the document
+            DocumentBuilder dBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+            Document doc = dBuilder.parse(path.toFile());
+            doc.getDocumentElement().normalize();
+
+            // Extract name and score information from the player elements
+            NodeList nList = doc.getElementsByTagName(TagName.PLAYER.getTagName());
+            for (int i = 0; i < nList.getLength(); i++) {
+                Node nNode = nList.item(i);
+                if (nNode.getNodeType() == Node.ELEMENT_NODE) {
+                    Element eElement = (Element) nNode;
+                    String name = eElement.getElementsByTagName(TagName.NAME.getTagName()).item(0).getTextContent();
+                    int score = Integer.parseInt(eElement.getElementsByTagName(TagName.SCORE.getTagName()).item(0).getTextContent());
+                    scores.put(name, score);
+                }
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Malformed leaderboard " + path, e);
+        }
+        return scores;
+    }
+
+    /**
+     * Writes the players and scores of a leaderboard to an XML file, highest score first.
+     *
+     * <p>
+     * The whole document is built first and transformed once. It is written to a
+     * temporary file that then replaces the target, so a reader never sees a
+     * half-written leaderboard.
+     * </p>
+     *
+     * @param path   The XML file to write.
+     * @param scores The score of every player, by name.
+     * @throws IOException If the file cannot be written.
+     */
+    static void writeXml(Path path, Map<String, Integer> scores) throws IOException {
+        List<Map.Entry<String, Integer>> players = new ArrayList<>(scores.entrySet());
+        players.sort((p1, p2) -> Integer.compare(p2.getValue(), p1.getValue()));
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            // Create a new XML document with the root element for the leaderboard
+            Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+            Element rootElement = doc.createElement(TagName.LEADERBOARD.getTagName());
+            doc.appendChild(rootElement);
+
+            // Create XML elements for each player
+            for (Map.Entry<String, Integer> player : players) {
+                Element playerElement = doc.createElement(TagName.PLAYER.getTagName());
+                rootElement.appendChild(playerElement);
+                Element nameElement = doc.createElement(TagName.NAME.getTagName());
+                nameElement.appendChild(doc.createTextNode(player.getKey()));
+                playerElement.appendChild(nameElement);
+                Element scoreElement = doc.createElement(TagName.SCORE.getTagName());
+                scoreElement.appendChild(doc.createTextNode(Integer.toString(player.getValue())));
+                playerElement.appendChild(scoreElement);
+            }
+
+            // Transform the finished document to XML once
+            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.transform(new DOMSource(doc), new StreamResult(temp.toFile()));
+        } catch (Exception e) {
+            throw new IOException("Could not write leaderboard " + path, e);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
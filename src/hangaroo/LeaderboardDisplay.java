@@ -0,0 +1,124 @@
+package hangaroo;
+
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * The {@code LeaderboardDisplay} class shows a {@link LeaderboardView}: its best
+ * players, where a given player stands, and the online scores of the board when a
+ * scoreboard service is configured.
+ *
+ * <p>
+ * A display cannot record scores. Boards that games record on are {@link Leaderboard}s,
+ * which add {@link Leaderboard#update(Player)}; the global board, which merges every
+ * other one, is only a display, so a game can never be routed to it by mistake.
+ * </p>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+class LeaderboardDisplay {
+
+    /**
+     * The number of players shown on each side of a player ranked below the top entries.
+     */
+    private static final int NEIGHBOURS = 2;
+
+    /**
+     * The view holding the scores of the leaderboard.
+     */
+    private final LeaderboardView view;
+
+    /**
+     * The banner printed above the entries.
+     */
+    private final String banner;
+
+    /**
+     * The name the board is synced under, or {@code null} if it is not synced.
+     */
+    private final String boardName;
+
+    /**
+     * Constructs a new {@code LeaderboardDisplay} over the given view.
+     *
+     * @param view      The view holding the scores.
+     * @param banner    The banner printed above the entries.
+     * @param boardName The name the board is synced under, or {@code null} if it is not synced.
+     */
+    LeaderboardDisplay(LeaderboardView view, String banner, String boardName) {
+        this.view = view;
+        this.banner = banner;
+        this.boardName = boardName;
+    }
+
+    /**
+     * Retrieves the name the board is synced under.
+     *
+     * @return The name of the board, or {@code null} if it is not synced.
+     */
+    String getBoardName() {
+        return boardName;
+    }
+
+    void display(PrintStream out) {
+        displayTop(out);
+        displayOnline(out);
+    }
+
+    /**
+     * Displays the leaderboard followed by where the given player stands. A player
+     * ranked below the top entries is shown with the players just around them.
+     *
+     * @param out        The stream to print to.
+     * @param playerName The name of the player to locate.
+     */
+    void display(PrintStream out, String playerName) {
+        displayTop(out);
+        int rank = view.rank(playerName);
+        if (rank > Leaderboard.LeaderboardValue.MAX.getValue()) {
+            List<LeaderboardView.Entry> page = view.around(playerName, NEIGHBOURS);
+            int first = rank - indexOf(page, playerName);
+            out.println("...");
+            for (int i = 0; i < page.size(); i++) {
+                out.println("[" + (first + i) + "] " + page.get(i).name() + " - " + page.get(i).score() + " points");
+            }
+        }
+        if (rank != 0) {
+            out.println("Your rank: " + rank + " of " + view.size());
+        }
+        displayOnline(out);
+    }
+
+    private void displayTop(PrintStream out) {
+        out.print(banner);
+        List<LeaderboardView.Entry> entries = view.top(Leaderboard.LeaderboardValue.MAX.getValue());
+        for (int i = 0; i < entries.size(); i++) {
+            out.println("[" + (i+1) + "] " + entries.get(i).name() + " - " + entries.get(i).score() + " points");
+        }
+    }
+
+    private void displayOnline(PrintStream out) {
+        ScoreboardClient scoreboard = ScoreboardClient.shared();
+        if (boardName == null || scoreboard == null) {
+            return;
+        }
+        List<LeaderboardView.Entry> entries = scoreboard.remoteTop(boardName);
+        if (entries.isEmpty()) {
+            return;
+        }
+        out.println("Online:");
+        for (int i = 0; i < entries.size(); i++) {
+            out.println("[" + (i+1) + "] " + entries.get(i).name() + " - " + entries.get(i).score() + " points");
+        }
+    }
+
+    private static int indexOf(List<LeaderboardView.Entry> page, String playerName) {
+        for (int i = 0; i < page.size(); i++) {
+            if (page.get(i).name().equals(playerName)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,392 @@
+package hangaroo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+
+/**
+ * The {@code LeaderboardIndex} class is a concurrent ranked index of player scores that
+ * answers rank and range queries over millions of players.
+ *
+ * <p>
+ * Players are spread over a fixed number of shards by the hash of their name. Each
+ * shard has its own lock, a map from name to entry and an order-statistic treap: a
+ * randomized balanced search tree, ordered by score (highest first) and then by name,
+ * in which every node also knows the size of its subtree. Within a shard an upsert, the
+ * count of entries ahead of a key and finding where a key falls are O(log n) expected.
+ * </p>
+ *
+ * <p>
+ * Sessions updating players of different shards never wait for each other, and no
+ * operation holds more than one shard lock at a time. A player's rank is one plus the
+ * number of entries ahead of them in every shard. The top N, and the page of players
+ * around one player, are k-way merges of at most N entries taken from each shard.
+ * Queries spanning shards visit them one after the other, so under concurrent updates
+ * they reflect each shard at a slightly different moment.
+ * </p>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+final class LeaderboardIndex {
+
+    /**
+     * A node of a shard's treap.
+     */
+    private static final class Node {
+        final String name;
+        final int score;
+        final int priority;
+        Node left;
+        Node right;
+        int size = 1;
+
+        Node(String name, int score, int priority) {
+            this.name = name;
+            this.score = score;
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * One lock's worth of players.
+     */
+    private static final class Shard {
+        final Map<String, Node> nodes = new HashMap<>();
+        Node root;
+    }
+
+    private final Shard[] shards;
+    private final int mask;
+
+    /**
+     * Creates an empty index with one shard per expected concurrent writer.
+     */
+    LeaderboardIndex() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * Creates an empty index.
+     *
+     * @param shardCount The number of shards; rounded up to a power of two.
+     */
+    LeaderboardIndex(int shardCount) {
+        int capacity = Integer.highestOneBit(Math.max(shardCount - 1, 1)) << 1;
+        shards = new Shard[capacity];
+        for (int i = 0; i < capacity; i++) {
+            shards[i] = new Shard();
+        }
+        mask = capacity - 1;
+    }
+
+    /**
+     * Sets the score of a player, adding the player if needed.
+     *
+     * @param name  The name of the player.
+     * @param score The player's score.
+     * @return The player's previous score, or {@code null} if the player is new.
+     */
+    Integer upsert(String name, int score) {
+        Shard shard = shardOf(name);
+        synchronized (shard) {
+            Node previous = shard.nodes.get(name);
+            if (previous != null) {
+                if (previous.score == score) {
+                    return score;
+                }
+                shard.root = remove(shard.root, previous.score, name);
+            }
+            Node node = new Node(name, score, ThreadLocalRandom.current().nextInt());
+            shard.nodes.put(name, node);
+            shard.root = insert(shard.root, node);
+            return previous == null ? null : previous.score;
+        }
+    }
+
+    /**
+     * Retrieves the score of a player.
+     *
+     * @param name The name of the player.
+     * @return The player's score, or {@code null} if the player is not in the index.
+     */
+    Integer score(String name) {
+        Shard shard = shardOf(name);
+        synchronized (shard) {
+            Node node = shard.nodes.get(name);
+            return node == null ? null : node.score;
+        }
+    }
+
+    /**
+     * Retrieves the rank of a player, where the best player is ranked 1. Players with
+     * the same score are ranked by name.
+     *
+     * @param name The name of the player.
+     * @return The player's rank, or 0 if the player is not in the index.
+     */
+    int rank(String name) {
+        Integer score = score(name);
+        if (score == null) {
+            return 0;
+        }
+        int rank = 1;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                rank += countAhead(shard.root, score, name);
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Retrieves the number of players in the index.
+     *
+     * @return The number of players.
+     */
+    int size() {
+        int size = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                size += size(shard.root);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Retrieves the best players, highest score first.
+     *
+     * @param limit The most entries to return.
+     * @return Up to {@code limit} entries in rank order.
+     */
+    List<LeaderboardView.Entry> top(int limit) {
+        List<List<LeaderboardView.Entry>> runs = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            List<LeaderboardView.Entry> run = new ArrayList<>();
+            synchronized (shard) {
+                collectFrom(shard.root, Integer.MAX_VALUE, "", limit, run);
+            }
+            runs.add(run);
+        }
+        return merge(runs, limit, false);
+    }
+
+    /**
+     * Retrieves the page of the leaderboard around a player: up to {@code radius}
+     * players ranked just ahead of them, the player, and up to {@code radius} players
+     * ranked just behind them, in rank order. The rank of the first entry is
+     * {@code rank(name)} minus the position of the player in the page.
+     *
+     * @param name   The name of the player.
+     * @param radius The most players to include on each side.
+     * @return The entries around the player, or an empty list if the player is not in the index.
+     */
+    List<LeaderboardView.Entry> around(String name, int radius) {
+        Integer score = score(name);
+        if (score == null) {
+            return new ArrayList<>();
+        }
+        List<List<LeaderboardView.Entry>> ahead = new ArrayList<>(shards.length);
+        List<List<LeaderboardView.Entry>> behind = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            List<LeaderboardView.Entry> before = new ArrayList<>();
+            List<LeaderboardView.Entry> from = new ArrayList<>();
+            synchronized (shard) {
+                collectAhead(shard.root, score, name, radius, before);
+                collectFrom(shard.root, score, name, radius + 1, from);
+            }
+            ahead.add(before);
+            behind.add(from);
+        }
+        List<LeaderboardView.Entry> page = merge(ahead, radius, true);
+        Collections.reverse(page);
+        page.addAll(merge(behind, radius + 1, false));
+        return page;
+    }
+
+    /**
+     * Passes every player and score to the given action, one shard at a time.
+     *
+     * @param action The action to run for each player.
+     */
+    void forEach(BiConsumer<String, Integer> action) {
+        for (Shard shard : shards) {
+            List<LeaderboardView.Entry> entries = new ArrayList<>();
+            synchronized (shard) {
+                for (Node node : shard.nodes.values()) {
+                    entries.add(new LeaderboardView.Entry(node.name, node.score));
+                }
+            }
+            for (LeaderboardView.Entry entry : entries) {
+                action.accept(entry.name(), entry.score());
+            }
+        }
+    }
+
+    private Shard shardOf(String name) {
+        int hash = name.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    /**
+     * Compares a key with a node in rank order: a negative result means the key is ranked
+     * ahead of the node.
+     */
+    private static int compare(int score, String name, Node node) {
+        if (score != node.score) {
+            return score > node.score ? -1 : 1;
+        }
+        return name.compareTo(node.name);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static Node update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    private static Node insert(Node root, Node node) {
+        if (root == null) {
+            return node;
+        }
+        if (compare(node.score, node.name, root) < 0) {
+            root.left = insert(root.left, node);
+            if (root.left.priority > root.priority) {
+                Node left = root.left;
+                root.left = left.right;
+                left.right = update(root);
+                return update(left);
+            }
+        } else {
+            root.right = insert(root.right, node);
+            if (root.right.priority > root.priority) {
+                Node right = root.right;
+                root.right = right.left;
+                right.left = update(root);
+                return update(right);
+            }
+        }
+        return update(root);
+    }
+
+    private static Node remove(Node root, int score, String name) {
+        if (root == null) {
+            return null;
+        }
+        int comparison = compare(score, name, root);
+        if (comparison < 0) {
+            root.left = remove(root.left, score, name);
+        } else if (comparison > 0) {
+            root.right = remove(root.right, score, name);
+        } else {
+            return join(root.left, root.right);
+        }
+        return update(root);
+    }
+
+    /**
+     * Joins two treaps where every key of the first is ranked ahead of every key of the second.
+     */
+    private static Node join(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = join(left.right, right);
+            return update(left);
+        }
+        right.left = join(left, right.left);
+        return update(right);
+    }
+
+    private static int countAhead(Node node, int score, String name) {
+        int count = 0;
+        while (node != null) {
+            if (compare(score, name, node) > 0) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Collects, in rank order, up to {@code limit} entries ranked at or behind the key.
+     */
+    private static void collectFrom(Node node, int score, String name, int limit,
+                                    List<LeaderboardView.Entry> out) {
+        if (node == null || out.size() >= limit) {
+            return;
+        }
+        if (compare(score, name, node) <= 0) {
+            collectFrom(node.left, score, name, limit, out);
+            if (out.size() < limit) {
+                out.add(new LeaderboardView.Entry(node.name, node.score));
+            }
+        }
+        collectFrom(node.right, score, name, limit, out);
+    }
+
+    /**
+     * Collects, nearest first, up to {@code limit} entries ranked strictly ahead of the key.
+     */
+    private static void collectAhead(Node node, int score, String name, int limit,
+                                     List<LeaderboardView.Entry> out) {
+        if (node == null || out.size() >= limit) {
+            return;
+        }
+        if (compare(score, name, node) > 0) {
+            collectAhead(node.right, score, name, limit, out);
+            if (out.size() < limit) {
+                out.add(new LeaderboardView.Entry(node.name, node.score));
+            }
+        }
+        collectAhead(node.left, score, name, limit, out);
+    }
+
+    /**
+     * Merges runs that are each sorted in rank order, or in reverse rank order when
+     * {@code reversed} is set, keeping the first {@code limit} entries.
+     */
+    static List<LeaderboardView.Entry> merge(List<List<LeaderboardView.Entry>> runs, int limit,
+                                              boolean reversed) {
+        // Each heap element is {run, position}
+        PriorityQueue<int[]> heap = new PriorityQueue<>(Math.max(runs.size(), 1), (a, b) -> {
+            LeaderboardView.Entry e1 = runs.get(a[0]).get(a[1]);
+            LeaderboardView.Entry e2 = runs.get(b[0]).get(b[1]);
+            int comparison = e1.score() != e2.score()
+                    ? Integer.compare(e2.score(), e1.score())
+                    : e1.name().compareTo(e2.name());
+            return reversed ? -comparison : comparison;
+        });
+        for (int run = 0; run < runs.size(); run++) {
+            if (!runs.get(run).isEmpty()) {
+                heap.add(new int[] {run, 0});
+            }
+        }
+        List<LeaderboardView.Entry> merged = new ArrayList<>(Math.min(limit, 64));
+        while (!heap.isEmpty() && merged.size() < limit) {
+            int[] head = heap.poll();
+            List<LeaderboardView.Entry> run = runs.get(head[0]);
+            merged.add(run.get(head[1]));
+            if (++head[1] < run.size()) {
+                heap.add(head);
+            }
+        }
+        return merged;
+    }
+}
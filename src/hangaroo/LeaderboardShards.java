@@ -0,0 +1,104 @@
+package hangaroo;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The {@code LeaderboardShards} class keeps one leaderboard for every pair of
+ * {@link GameMode} and {@link Difficulty}, each in its own store and files.
+ *
+ * <p>
+ * A board is opened the first time it is used and is shared by the whole process.
+ * Since every board has its own journal (or records file) and its own lock, games of
+ * different modes or difficulties never wait for each other or rewrite each other's
+ * files. The board of SURVIVAL on EASY, for example, lives in
+ * {@code Leaderboard-survival-easy.xml} and {@code Leaderboard-survival-easy.journal}
+ * next to the default leaderboard file.
+ * </p>
+ *
+ * <p>
+ * The global leaderboard ranks every player by their best score on any board. It is a
+ * {@link MergedLeaderboardView} over all boards and the default leaderboard, which
+ * holds the survival scores recorded before the boards were split.
+ * </p>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+final class LeaderboardShards {
+
+    private static final LeaderboardStore[][] BOARDS =
+            new LeaderboardStore[GameMode.values().length][Difficulty.values().length];
+
+    private static final class GlobalHolder {
+        static final MergedLeaderboardView INSTANCE = new MergedLeaderboardView(allBoards());
+    }
+
+    private LeaderboardShards() {
+    }
+
+    /**
+     * Retrieves the board of a game mode and difficulty, opening it on first use.
+     *
+     * @param gameMode   The game mode of the board.
+     * @param difficulty The difficulty of the board.
+     * @return The shared store of the board.
+     */
+    static LeaderboardStore board(GameMode gameMode, Difficulty difficulty) {
+        synchronized (BOARDS) {
+            LeaderboardStore board = BOARDS[gameMode.ordinal()][difficulty.ordinal()];
+            if (board == null) {
+                board = open(gameMode, difficulty);
+                BOARDS[gameMode.ordinal()][difficulty.ordinal()] = board;
+            }
+            return board;
+        }
+    }
+
+    /**
+     * Retrieves the global leaderboard, opening every board on first use.
+     *
+     * @return The read-only merged view of all boards.
+     */
+    static LeaderboardView global() {
+        return GlobalHolder.INSTANCE;
+    }
+
+    private static List<LeaderboardStore> allBoards() {
+        List<LeaderboardStore> boards = new ArrayList<>();
+        for (GameMode gameMode : GameMode.values()) {
+            for (Difficulty difficulty : Difficulty.values()) {
+                boards.add(board(gameMode, difficulty));
+            }
+        }
+        boards.add(Leaderboard.defaultStore());
+        return boards;
+    }
+
+    /**
+     * Retrieves the name of the board of a game mode and difficulty, such as
+     * {@code survival-easy}.
+     *
+     * @param gameMode   The game mode of the board.
+     * @param difficulty The difficulty of the board.
+     * @return The name of the board.
+     */
+    static String name(GameMode gameMode, Difficulty difficulty) {
+        return gameMode.name().toLowerCase(Locale.ROOT) + "-" + difficulty.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static LeaderboardStore open(GameMode gameMode, Difficulty difficulty) {
+        Path directory = Path.of(Leaderboard.FilePath.LEADERBOARD_PATH.getPath()).getParent();
+        String name = "Leaderboard-" + name(gameMode, difficulty);
+        Path snapshot = directory.resolve(name + ".xml");
+        if ("mapped".equals(System.getProperty("hangaroo.leaderboard.store"))) {
+            MappedLeaderboardStore store = MappedLeaderboardStore.open(directory.resolve(name + ".records"),
+                    directory.resolve(name + ".index"), snapshot);
+            Runtime.getRuntime().addShutdownHook(new Thread(store::force, "leaderboard-force"));
+            return store;
+        }
+        return JournaledLeaderboardStore.open(snapshot, directory.resolve(name + ".journal"));
+    }
+}
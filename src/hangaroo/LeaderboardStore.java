@@ -0,0 +1,25 @@
+package hangaroo;
+
+/**
+ * The {@code LeaderboardStore} interface is where the scores shown on a
+ * {@link Leaderboard} are kept.
+ *
+ * <p>
+ * A store holds the latest score of every player by name and ranks them like any
+ * {@link LeaderboardView}. Implementations must be safe to use from several game
+ * threads at once.
+ * </p>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+interface LeaderboardStore extends LeaderboardView {
+
+    /**
+     * Records the score of a player, replacing any score recorded before.
+     *
+     * @param name  The name of the player.
+     * @param score The player's score.
+     */
+    void update(String name, int score);
+}
@@ -0,0 +1,68 @@
+package hangaroo;
+
+import java.util.List;
+
+/**
+ * The {@code LeaderboardView} interface is the read-only side of a leaderboard: the
+ * ranking of its players, without a way to record scores.
+ *
+ * <p>
+ * A view can rank every player it holds, not only the players shown on the board.
+ * Boards that games record scores on are {@link LeaderboardStore}s; a view such as the
+ * {@link MergedLeaderboardView} only shows scores recorded elsewhere. Implementations
+ * must be safe to use from several game threads at once.
+ * </p>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+interface LeaderboardView {
+
+    /**
+     * A player's name and score on the leaderboard.
+     */
+    record Entry(String name, int score) {
+    }
+
+    /**
+     * Retrieves the best players, highest score first.
+     *
+     * @param limit The most entries to return.
+     * @return Up to {@code limit} entries in descending order of score.
+     */
+    List<Entry> top(int limit);
+
+    /**
+     * Retrieves the rank of a player, where the best player is ranked 1.
+     *
+     * @param name The name of the player.
+     * @return The player's rank, or 0 if the player has no recorded score.
+     */
+    int rank(String name);
+
+    /**
+     * Retrieves the page of the leaderboard around a player, in rank order: up to
+     * {@code radius} players ahead of them, the player, and up to {@code radius} players
+     * behind them.
+     *
+     * @param name   The name of the player.
+     * @param radius The most players to include on each side.
+     * @return The entries around the player, or an empty list if the player has no recorded score.
+     */
+    List<Entry> around(String name, int radius);
+
+    /**
+     * Retrieves the number of players in the view.
+     *
+     * @return The number of players with a recorded score.
+     */
+    int size();
+
+    /**
+     * Retrieves a number that grows whenever the scores in the view change, so views
+     * built from it can tell when they are out of date.
+     *
+     * @return The current version of the scores.
+     */
+    long version();
+}
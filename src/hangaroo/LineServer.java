@@ -0,0 +1,352 @@
+package hangaroo;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * The {@code LineServer} class serves many players from one JVM over plain TCP, in the
+ * style of a telnet game.
+ *
+ * <p>
+ * The server runs a single {@link Selector} loop on one thread. Every connection has
+ * its own small read and write buffers and its own {@link GameSession}, so players are
+ * isolated from each other without a thread per connection. Input is line based: the
+ * player answers the name, difficulty and game mode prompts with one line each, and
+ * while a game is running every non-whitespace character of a line is submitted as a
+ * guess. A line longer than {@value #MAX_LINE_LENGTH} bytes is rejected as a whole
+ * and the prompt is repeated.
+ * </p>
+ *
+ * <p>
+ * Output that the socket does not accept right away is kept in the connection's write
+ * buffer. Once more than {@value #PAUSE_OUTPUT} bytes are pending, the connection's input
+ * is not read until the player has received most of them, and a connection that lets
+ * more than {@value #MAX_PENDING_OUTPUT} bytes pile up is closed.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre> {@code
+ * java -cp out hangaroo.Main --server 4000
+ * telnet localhost 4000
+ * }</pre>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+class LineServer {
+
+    /**
+     * The port the server listens on when none is given.
+     */
+    public static final int DEFAULT_PORT = 4000;
+
+    private static final int READ_BUFFER_SIZE = 512;
+    private static final int WRITE_BUFFER_SIZE = 1024;
+    private static final int MAX_LINE_LENGTH = 256;
+    private static final int PAUSE_OUTPUT = 16 * 1024;
+    private static final int MAX_PENDING_OUTPUT = 256 * 1024;
+    private static final String NAME_PROMPT = "Enter player name: ";
+    private static final String DIFFICULTY_PROMPT = "Select difficulty [1] Easy [2] Medium [3] Hard: ";
+    private static final String MODE_PROMPT = "Select [1] Classic [2] Survival [Q] Quit: ";
+
+    private final int port;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    /**
+     * Creates a server listening on the given port.
+     *
+     * @param port The TCP port to listen on.
+     */
+    LineServer(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Accepts and serves connections until the thread is interrupted.
+     *
+     * @throws IOException If the server socket cannot be opened.
+     */
+    void run() throws IOException {
+        try (Selector selector = Selector.open();
+             ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(port));
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+            System.out.println("Bootleg Hangaroo server listening on port " + port);
+
+            while (!Thread.currentThread().isInterrupted()) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (key.isAcceptable()) {
+                            accept(server, selector);
+                        } else {
+                            Connection connection = (Connection) key.attachment();
+                            if (key.isReadable()) {
+                                connection.read();
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                connection.flush();
+                            }
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        // One broken connection must not take the other players down
+                        close(key);
+                    }
+                }
+            }
+        }
+    }
+
+    private void accept(ServerSocketChannel server, Selector selector) throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        Connection connection = new Connection(key);
+        key.attach(connection);
+        connection.greet();
+    }
+
+    private static void close(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            // The connection is gone either way
+        }
+    }
+
+    /**
+     * The states a connection moves through.
+     */
+    private enum State {
+        NAME, DIFFICULTY, MODE, PLAYING
+    }
+
+    /**
+     * One player's connection: its buffers, its position in the menu and its game.
+     */
+    private final class Connection implements GameListener {
+
+        private final SelectionKey key;
+        private final SocketChannel channel;
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        private ByteBuffer writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+        private final byte[] line = new byte[MAX_LINE_LENGTH];
+        private int lineLength;
+        private boolean lineTooLong;
+        private final StringBuilder text = new StringBuilder();
+        private State state = State.NAME;
+        private Player player;
+        private Difficulty difficulty;
+        private GameSession session;
+
+        Connection(SelectionKey key) {
+            this.key = key;
+            this.channel = (SocketChannel) key.channel();
+        }
+
+        void greet() throws IOException {
+            text.append(Art.TITLE).append(NAME_PROMPT);
+            send();
+        }
+
+        void read() throws IOException {
+            int read = channel.read(readBuffer);
+            if (read < 0) {
+                close(key);
+                return;
+            }
+            readBuffer.flip();
+            while (readBuffer.hasRemaining() && state != null) {
+                byte b = readBuffer.get();
+                if (b == '\n') {
+                    if (lineTooLong) {
+                        text.append("Line too long! Lines are limited to ").append(MAX_LINE_LENGTH).append(" bytes.\n");
+                        prompt();
+                    } else {
+                        handleLine(new String(line, 0, lineLength, StandardCharsets.UTF_8).strip());
+                    }
+                    lineLength = 0;
+                    lineTooLong = false;
+                } else if (b != '\r') {
+                    if (lineLength < line.length) {
+                        line[lineLength++] = b;
+                    } else {
+                        lineTooLong = true;
+                    }
+                }
+            }
+            readBuffer.clear();
+            send();
+        }
+
+        private void handleLine(String input) {
+            switch (state) {
+                case NAME -> {
+                    player = new Player(input.isEmpty() ? "Player" : input);
+                    text.append(DIFFICULTY_PROMPT);
+                    state = State.DIFFICULTY;
+                }
+                case DIFFICULTY -> {
+                    difficulty = switch (input.isEmpty() ? ' ' : input.charAt(0)) {
+                        case '1' -> Difficulty.EASY;
+                        case '2' -> Difficulty.MEDIUM;
+                        case '3' -> Difficulty.HARD;
+                        default -> null;
+                    };
+                    if (difficulty == null) {
+                        text.append("Invalid choice!\n").append(DIFFICULTY_PROMPT);
+                    } else {
+                        promptMode();
+                    }
+                }
+                case MODE -> {
+                    switch (input.isEmpty() ? ' ' : Character.toUpperCase(input.charAt(0))) {
+                        case '1' -> startGame(GameMode.CLASSIC);
+                        case '2' -> startGame(GameMode.SURVIVAL);
+                        case 'Q' -> {
+                            text.append("Bye!\n");
+                            state = null;
+                        }
+                        default -> text.append("Invalid choice!\n").append(MODE_PROMPT);
+                    }
+                }
+                case PLAYING -> {
+                    for (int i = 0; i < input.length() && session.isPlaying(); i++) {
+                        if (!Character.isWhitespace(input.charAt(i))) {
+                            session.submitGuess(input.charAt(i));
+                        }
+                    }
+                    if (session.isPlaying()) {
+                        drawTurn();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Repeats the question the connection is waiting for an answer to.
+         */
+        private void prompt() {
+            switch (state) {
+                case NAME -> text.append(NAME_PROMPT);
+                case DIFFICULTY -> text.append(DIFFICULTY_PROMPT);
+                case MODE -> text.append(MODE_PROMPT);
+                case PLAYING -> drawTurn();
+            }
+        }
+
+        private void promptMode() {
+            text.append(MODE_PROMPT);
+            state = State.MODE;
+        }
+
+        private void startGame(GameMode gameMode) {
+            state = State.PLAYING;
+            session = new GameSession(gameMode, player, difficulty, this);
+            session.start();
+            drawTurn();
+        }
+
+        private void drawTurn() {
+            GameSession.Turn turn = session.currentTurn();
+            text.append("Stage ").append(turn.stageNumber())
+                    .append(" | Health: ").append(turn.health())
+                    .append(" | Score: ").append(turn.score()).append('\n')
+                    .append(turn.guessedLetters()).append('\n')
+                    .append(turn.description()).append('\n')
+                    .append("Enter your guess: ");
+        }
+
+        @Override
+        public void guessed(GameSession session, char letter, GuessResult result) {
+            text.append(Character.toUpperCase(letter)).append(result.isCorrect() ? " - Correct!\n" : " - Wrong!\n");
+        }
+
+        @Override
+        public void stageCleared(GameSession session, Stage stage) {
+            text.append("You got it: ").append(stage.retrieveGuessedLetters()).append('\n');
+        }
+
+        @Override
+        public void gameEnded(GameSession session, boolean won) {
+            if (won) {
+                text.append(Art.CONGRATULATIONS);
+            } else {
+                text.append(Art.GAME_OVER);
+            }
+            text.append("Final score: ").append(session.getPlayer().getScore()).append('\n');
+            promptMode();
+        }
+
+        /**
+         * Encodes the pending text into the write buffer and writes as much as the
+         * socket accepts; the rest is written once the socket becomes writable.
+         *
+         * @throws IOException If the socket cannot be written to, or if the player is
+         *                     not reading and the output pending would exceed
+         *                     {@value #MAX_PENDING_OUTPUT} bytes.
+         */
+        private void send() throws IOException {
+            if (text.isEmpty()) {
+                return;
+            }
+            CharBuffer chars = CharBuffer.wrap(text);
+            encoder.reset();
+            while (encoder.encode(chars, writeBuffer, true).isOverflow()) {
+                if (writeBuffer.capacity() >= MAX_PENDING_OUTPUT) {
+                    throw new IOException("Too much output pending for " + channel.getRemoteAddress());
+                }
+                ByteBuffer larger = ByteBuffer.allocate(writeBuffer.capacity() * 2);
+                writeBuffer.flip();
+                writeBuffer = larger.put(writeBuffer);
+            }
+            encoder.flush(writeBuffer);
+            text.setLength(0);
+            flush();
+        }
+
+        void flush() throws IOException {
+            writeBuffer.flip();
+            channel.write(writeBuffer);
+            writeBuffer.compact();
+            if (writeBuffer.position() > PAUSE_OUTPUT) {
+                // Stop taking input, which is what produces output, until the player catches up
+                key.interestOps(SelectionKey.OP_WRITE);
+            } else if (writeBuffer.position() > 0) {
+                key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+            } else {
+                if (state == null) {
+                    close(key);
+                    return;
+                }
+                key.interestOps(SelectionKey.OP_READ);
+                if (writeBuffer.capacity() > WRITE_BUFFER_SIZE) {
+                    // Give back the memory of a large burst once it has been written
+                    writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package hangaroo;
+
+// Press Shift twice to open the Search Everywhere dialog and type `show whitespaces`,
+// then press Enter. You can now see whitespace characters in your code.
+public class Main {
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--server")) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : LineServer.DEFAULT_PORT;
+            new LineServer(port).run();
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--scoreboard")) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : ScoreboardStub.DEFAULT_PORT;
+            new ScoreboardStub(port).start();
+            System.out.println("Scoreboard stub listening on port " + port);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--host")) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : SessionHost.DEFAULT_PORT;
+            new SessionHost(port).run();
+            return;
+        }
+        new ConsoleClient(ConsoleInput.system(), System.out, FrameRenderer.console()).run();
+    }
+}
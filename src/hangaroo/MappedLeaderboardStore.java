@@ -0,0 +1,572 @@
+package hangaroo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code MappedLeaderboardStore} class keeps the leaderboard in a memory-mapped file
+ * of fixed-size records, with a sorted index alongside it on disk.
+ *
+ * <p>
+ * Every player has one record, which never moves, and every update is written in place
+ * through the mapping. The index file lists the record numbers in rank order (score
+ * first, highest first, then name), so showing the board reads the first entries of the
+ * index and their records straight from the mapping, without parsing anything. When a
+ * score changes, only the index entries between the player's old and new positions are
+ * shifted. A name-to-record map is built in memory when the files are opened.
+ * </p>
+ *
+ * <p>
+ * Several game processes can share the files. Every mapping of a file shares the same
+ * pages, so a score written by one process is read by the others straight away; what a
+ * process must catch up on is the players another one added and the files growing. An
+ * update holds an exclusive {@link FileLock} on the records file, and a read a shared
+ * one, only for that call. Under the lock the store compares the player count in the
+ * header with its own and, when another process has added players, maps the grown
+ * files again and reads the new names. The header also counts the changes made by any
+ * process, which is the version of the store, so views over it see other processes'
+ * updates too.
+ * </p>
+ *
+ * <p>
+ * Both files are laid out as follows (all integers big-endian):
+ * </p>
+ * <pre>
+ * Leaderboard.records  header  int magic, int version, int count, int changes
+ *                      record  short nameLength, 46 name bytes (UTF-8), int score,
+ *                              long updatedMillis, 4 bytes padding
+ * Leaderboard.index    header  int magic, int version, int count, int reserved
+ *                      entry   int record number
+ * </pre>
+ *
+ * <p>
+ * A name whose UTF-8 form does not fit the name slot is stored as its longest prefix
+ * of whole characters that leaves room for {@code ~} and eight hex digits of a hash of
+ * the whole name, so two long names sharing a prefix keep separate records. If the
+ * index does not match the records or is out of order when the files are opened, for
+ * instance after a crash between the two writes, it is rebuilt from the records. The
+ * store is selected with
+ * {@code -Dhangaroo.leaderboard.store=mapped}; the first time it is opened it migrates
+ * the scores of {@code Leaderboard.xml}, writing all the records before sorting the
+ * index once. The migration can also be run ahead of time:
+ * </p>
+ * <pre> {@code
+ * java -cp out hangaroo.MappedLeaderboardStore
+ * }</pre>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+final class MappedLeaderboardStore implements LeaderboardStore {
+
+    /**
+     * The path of the records file of the default leaderboard.
+     */
+    public static final String RECORDS_PATH = "BootlegHangaroo/AppData/Leaderboard/Leaderboard.records";
+
+    /**
+     * The path of the index file of the default leaderboard.
+     */
+    public static final String INDEX_PATH = "BootlegHangaroo/AppData/Leaderboard/Leaderboard.index";
+
+    private static final int RECORDS_MAGIC = 0x42484C52; // "BHLR"
+    private static final int INDEX_MAGIC = 0x42484C49; // "BHLI"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int COUNT_OFFSET = 8;
+    private static final int CHANGES_OFFSET = 12;
+
+    private static final int NAME_SLOT = 46;
+    private static final int NAME_HASH_SIZE = 9; // '~' and eight hex digits
+    private static final int SCORE_OFFSET = Short.BYTES + NAME_SLOT;
+    private static final int UPDATED_OFFSET = SCORE_OFFSET + Integer.BYTES;
+    private static final int RECORD_SIZE = 64;
+    private static final int INITIAL_CAPACITY = 256;
+
+    private static final class Holder {
+        static final MappedLeaderboardStore INSTANCE = open(Path.of(RECORDS_PATH), Path.of(INDEX_PATH),
+                Path.of(Leaderboard.FilePath.LEADERBOARD_PATH.getPath()));
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(INSTANCE::force, "leaderboard-force"));
+        }
+    }
+
+    private final FileChannel recordsChannel;
+    private final FileChannel indexChannel;
+    private MappedByteBuffer records;
+    private MappedByteBuffer index;
+    private int count;
+    private final Map<String, Integer> recordOf = new HashMap<>();
+
+    /**
+     * Opens or creates a store.
+     *
+     * @param recordsPath The records file.
+     * @param indexPath   The index file.
+     * @throws IOException If the files cannot be opened or are not leaderboard files.
+     */
+    MappedLeaderboardStore(Path recordsPath, Path indexPath) throws IOException {
+        Files.createDirectories(recordsPath.toAbsolutePath().getParent());
+        FileChannel recordsFile = FileChannel.open(recordsPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        FileChannel indexFile = null;
+        try {
+            indexFile = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            recordsChannel = recordsFile;
+            indexChannel = indexFile;
+            FileLock lock = recordsFile.lock();
+            try {
+                load(recordsPath);
+            } finally {
+                lock.release();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Closing the records file also releases the lock
+            if (indexFile != null) {
+                indexFile.close();
+            }
+            recordsFile.close();
+            throw e;
+        }
+    }
+
+    private void load(Path recordsPath) throws IOException {
+        boolean created = recordsChannel.size() == 0;
+        records = map(recordsChannel, Math.max(recordsChannel.size(), HEADER_SIZE + (long) INITIAL_CAPACITY * RECORD_SIZE));
+        index = map(indexChannel, Math.max(indexChannel.size(), HEADER_SIZE + (long) INITIAL_CAPACITY * Integer.BYTES));
+        if (created) {
+            records.putInt(0, RECORDS_MAGIC).putInt(Integer.BYTES, VERSION).putInt(COUNT_OFFSET, 0)
+                    .putInt(CHANGES_OFFSET, 0);
+        } else if (records.getInt(0) != RECORDS_MAGIC || records.getInt(Integer.BYTES) != VERSION) {
+            throw new IOException("Not a leaderboard records file: " + recordsPath);
+        }
+
+        count = records.getInt(COUNT_OFFSET);
+        for (int record = 0; record < count; record++) {
+            recordOf.put(name(record), record);
+        }
+        if (index.getInt(0) != INDEX_MAGIC || index.getInt(Integer.BYTES) != VERSION
+                || index.getInt(COUNT_OFFSET) != count || !indexSorted()) {
+            rebuildIndex();
+        }
+    }
+
+    /**
+     * Opens a store, migrating the scores of a leaderboard XML file into it if the
+     * records file does not exist yet.
+     *
+     * @param recordsPath The records file.
+     * @param indexPath   The index file.
+     * @param xmlPath     The XML leaderboard to migrate from.
+     * @return The opened store.
+     */
+    static MappedLeaderboardStore open(Path recordsPath, Path indexPath, Path xmlPath) {
+        try {
+            // Read before the records file is created, so a malformed XML file is migrated by a later open
+            Map<String, Integer> legacy = Files.exists(recordsPath) ? null : Leaderboard.readXml(xmlPath);
+            MappedLeaderboardStore store = new MappedLeaderboardStore(recordsPath, indexPath);
+            if (legacy != null) {
+                store.migrate(legacy);
+                store.force();
+            }
+            return store;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Retrieves the store of the default leaderboard, opening it on first use.
+     *
+     * @return The shared store.
+     */
+    static MappedLeaderboardStore shared() {
+        return Holder.INSTANCE;
+    }
+
+    @Override
+    public synchronized void update(String name, int score) {
+        FileLock lock = lock(false);
+        try {
+            String key = key(name);
+            Integer existing = recordOf.get(key);
+            if (existing == null) {
+                int record = append(key, score, System.currentTimeMillis());
+                int position = lowerBound(score, key, count);
+                for (int i = count - 1; i >= position; i--) {
+                    setIndex(i + 1, indexAt(i));
+                }
+                setIndex(position, record);
+                count++;
+                records.putInt(COUNT_OFFSET, count);
+                index.putInt(COUNT_OFFSET, count);
+                changed();
+                return;
+            }
+
+            int record = existing;
+            int offset = recordOffset(record);
+            int previous = records.getInt(offset + SCORE_OFFSET);
+            records.putLong(offset + UPDATED_OFFSET, System.currentTimeMillis());
+            if (previous == score) {
+                return;
+            }
+            int from = lowerBound(previous, key, count);
+            int to = lowerBound(score, key, count);
+            if (to <= from) {
+                // Moving up: shift the entries in between down by one
+                for (int i = from - 1; i >= to; i--) {
+                    setIndex(i + 1, indexAt(i));
+                }
+            } else {
+                // Moving down: the bound counted the player's own entry, which is ahead of the new key
+                to--;
+                for (int i = from; i < to; i++) {
+                    setIndex(i, indexAt(i + 1));
+                }
+            }
+            setIndex(to, record);
+            records.putInt(offset + SCORE_OFFSET, score);
+            changed();
+        } finally {
+            release(lock);
+        }
+    }
+
+    @Override
+    public synchronized List<Entry> top(int limit) {
+        FileLock lock = lock(true);
+        try {
+            return entries(0, Math.min(limit, count));
+        } finally {
+            release(lock);
+        }
+    }
+
+    @Override
+    public synchronized int rank(String name) {
+        FileLock lock = lock(true);
+        try {
+            return rankOf(name);
+        } finally {
+            release(lock);
+        }
+    }
+
+    @Override
+    public synchronized List<Entry> around(String name, int radius) {
+        FileLock lock = lock(true);
+        try {
+            int rank = rankOf(name);
+            if (rank == 0) {
+                return new ArrayList<>();
+            }
+            return entries(Math.max(rank - 1 - radius, 0), Math.min(rank + radius, count));
+        } finally {
+            release(lock);
+        }
+    }
+
+    @Override
+    public synchronized int size() {
+        FileLock lock = lock(true);
+        try {
+            return count;
+        } finally {
+            release(lock);
+        }
+    }
+
+    /**
+     * Retrieves the number of changes made to the scores by every process sharing the
+     * files.
+     *
+     * @return The change count in the header of the records file.
+     */
+    @Override
+    public synchronized long version() {
+        return Integer.toUnsignedLong(records.getInt(CHANGES_OFFSET));
+    }
+
+    /**
+     * Retrieves when a player's score was last updated.
+     *
+     * @param name The name of the player.
+     * @return The time of the last update in epoch milliseconds, or 0 if the player is unknown.
+     */
+    synchronized long getUpdated(String name) {
+        FileLock lock = lock(true);
+        try {
+            Integer record = recordOf.get(key(name));
+            return record == null ? 0 : records.getLong(recordOffset(record) + UPDATED_OFFSET);
+        } finally {
+            release(lock);
+        }
+    }
+
+    /**
+     * Forces the changes made through the mappings out to the files.
+     */
+    synchronized void force() {
+        records.force();
+        index.force();
+    }
+
+    /**
+     * Forces the changes out and closes the files. The store cannot be used afterwards.
+     *
+     * @throws IOException If the files cannot be closed.
+     */
+    synchronized void close() throws IOException {
+        try {
+            force();
+        } finally {
+            try {
+                indexChannel.close();
+            } finally {
+                recordsChannel.close();
+            }
+        }
+    }
+
+    /**
+     * Adds the scores of a new store in bulk: the records are appended in one pass and
+     * the index is sorted once at the end, instead of shifting it for every player.
+     */
+    private synchronized void migrate(Map<String, Integer> scores) {
+        FileLock lock = lock(false);
+        try {
+            if (count > 0) {
+                // Another process created the files at the same time and migrated first
+                return;
+            }
+            long now = System.currentTimeMillis();
+            for (Map.Entry<String, Integer> entry : scores.entrySet()) {
+                String key = key(entry.getKey());
+                Integer existing = recordOf.get(key);
+                if (existing == null) {
+                    append(key, entry.getValue(), now);
+                    count++;
+                } else {
+                    records.putInt(recordOffset(existing) + SCORE_OFFSET, entry.getValue());
+                }
+            }
+            records.putInt(COUNT_OFFSET, count);
+            rebuildIndex();
+            changed();
+        } finally {
+            release(lock);
+        }
+    }
+
+    /**
+     * Takes the lock on the records file and catches up on the players other processes
+     * have added since this process last held it.
+     *
+     * @param shared Whether the lock is only needed for reading.
+     * @return The lock, to be released by the caller.
+     */
+    private FileLock lock(boolean shared) {
+        try {
+            FileLock lock = recordsChannel.lock(0, Long.MAX_VALUE, shared);
+            try {
+                int added = records.getInt(COUNT_OFFSET);
+                if (added != count) {
+                    // Other processes only ever add records, and they grow the files as they do
+                    if (recordsChannel.size() > records.capacity()) {
+                        records = map(recordsChannel, recordsChannel.size());
+                    }
+                    if (indexChannel.size() > index.capacity()) {
+                        index = map(indexChannel, indexChannel.size());
+                    }
+                    for (int record = count; record < added; record++) {
+                        recordOf.put(name(record), record);
+                    }
+                    count = added;
+                }
+            } catch (IOException | RuntimeException e) {
+                lock.release();
+                throw e;
+            }
+            return lock;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void release(FileLock lock) {
+        try {
+            lock.release();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Counts a change to the scores in the header, so every process sees a new version.
+     */
+    private void changed() {
+        records.putInt(CHANGES_OFFSET, records.getInt(CHANGES_OFFSET) + 1);
+    }
+
+    private int rankOf(String name) {
+        Integer record = recordOf.get(key(name));
+        if (record == null) {
+            return 0;
+        }
+        return lowerBound(score(record), name(record), count) + 1;
+    }
+
+    /**
+     * Writes the record after the last one and maps the name to it, growing the files if
+     * needed. The caller updates the count.
+     *
+     * @return The record number.
+     */
+    private int append(String key, int score, long updatedMillis) {
+        ensureCapacity(count + 1);
+        int record = count;
+        int offset = recordOffset(record);
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        records.putShort(offset, (short) bytes.length).put(offset + Short.BYTES, bytes)
+                .putInt(offset + SCORE_OFFSET, score)
+                .putLong(offset + UPDATED_OFFSET, updatedMillis);
+        recordOf.put(key, record);
+        return record;
+    }
+
+    private List<Entry> entries(int from, int to) {
+        List<Entry> entries = new ArrayList<>(Math.max(to - from, 0));
+        for (int i = from; i < to; i++) {
+            int record = indexAt(i);
+            entries.add(new Entry(name(record), score(record)));
+        }
+        return entries;
+    }
+
+    /**
+     * Finds the first index position whose entry is not ranked ahead of the given key.
+     */
+    private int lowerBound(int score, String name, int size) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int record = indexAt(mid);
+            int recordScore = score(record);
+            boolean ahead = recordScore != score ? recordScore > score : name(record).compareTo(name) < 0;
+            if (ahead) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private boolean indexSorted() {
+        for (int i = 1; i < count; i++) {
+            int previous = indexAt(i - 1);
+            int current = indexAt(i);
+            if (previous < 0 || previous >= count || current < 0 || current >= count
+                    || score(previous) < score(current)
+                    || score(previous) == score(current) && name(previous).compareTo(name(current)) >= 0) {
+                return false;
+            }
+        }
+        return count == 0 || indexAt(0) >= 0 && indexAt(0) < count;
+    }
+
+    private void rebuildIndex() {
+        List<Integer> order = new ArrayList<>(count);
+        for (int record = 0; record < count; record++) {
+            order.add(record);
+        }
+        order.sort((r1, r2) -> score(r1) != score(r2)
+                ? Integer.compare(score(r2), score(r1))
+                : name(r1).compareTo(name(r2)));
+        index.putInt(0, INDEX_MAGIC).putInt(Integer.BYTES, VERSION);
+        for (int i = 0; i < count; i++) {
+            setIndex(i, order.get(i));
+        }
+        index.putInt(COUNT_OFFSET, count);
+    }
+
+    private void ensureCapacity(int size) {
+        try {
+            if (HEADER_SIZE + (long) size * RECORD_SIZE > records.capacity()) {
+                records = map(recordsChannel, records.capacity() * 2L);
+            }
+            if (HEADER_SIZE + (long) size * Integer.BYTES > index.capacity()) {
+                index = map(indexChannel, index.capacity() * 2L);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long size) throws IOException {
+        // Mapping past the end of the file grows it
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    private static int recordOffset(int record) {
+        return HEADER_SIZE + record * RECORD_SIZE;
+    }
+
+    private int indexAt(int position) {
+        return index.getInt(HEADER_SIZE + position * Integer.BYTES);
+    }
+
+    private void setIndex(int position, int record) {
+        index.putInt(HEADER_SIZE + position * Integer.BYTES, record);
+    }
+
+    private int score(int record) {
+        return records.getInt(recordOffset(record) + SCORE_OFFSET);
+    }
+
+    private String name(int record) {
+        int offset = recordOffset(record);
+        byte[] bytes = new byte[Math.min(Short.toUnsignedInt(records.getShort(offset)), NAME_SLOT)];
+        records.get(offset + Short.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Retrieves the name as it is stored in the name slot.
+     */
+    private static String key(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= NAME_SLOT) {
+            return name;
+        }
+        // Cut before a UTF-8 continuation byte so the slot holds whole characters
+        int length = NAME_SLOT - NAME_HASH_SIZE;
+        while (length > 0 && (bytes[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8)
+                + String.format(Locale.ROOT, "~%08x", Arrays.hashCode(bytes));
+    }
+
+    public static void main(String[] args) {
+        MappedLeaderboardStore store = shared();
+        System.out.println("Leaderboard.records holds " + store.size() + " players");
+    }
+}
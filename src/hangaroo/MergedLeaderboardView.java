@@ -0,0 +1,173 @@
+package hangaroo;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The {@code MergedLeaderboardView} class is a read-only view that ranks the players
+ * of several leaderboards together, each by their best score on any of them.
+ *
+ * <p>
+ * The view keeps no scores of its own. The top N is a k-way merge of the top N of
+ * every board; since a board holds each player once, a player among the best N
+ * overall is always among the best N of the board holding their best score. A rank
+ * or a page is found the same way: the boards' top runs are merged with a limit that
+ * doubles until the player, and the players after them on the page, fall within it, so
+ * locating a player near the top merges only the top of each board. The merged prefix
+ * is kept until the {@linkplain LeaderboardView#version() version} of a board changes,
+ * so looking at the view while nobody plays costs no merging at all.
+ * </p>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+final class MergedLeaderboardView implements LeaderboardView {
+
+    /**
+     * The limit of the first merge done to locate a player.
+     */
+    private static final int FIRST_LIMIT = 64;
+
+    /**
+     * The best players overall, in rank order, as of the given sum of board versions.
+     * Every player ranked within {@code limit} is listed; when {@code complete}, every
+     * player of every board is.
+     */
+    private record Prefix(long version, int limit, List<Entry> entries, boolean complete) {
+
+        int indexOf(String name) {
+            for (int i = 0; i < entries.size(); i++) {
+                if (entries.get(i).name().equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private final List<LeaderboardView> boards;
+    private Prefix prefix;
+    private long sizeVersion = -1;
+    private int size;
+
+    /**
+     * Creates a view over the given boards.
+     *
+     * @param boards The leaderboards to merge.
+     */
+    MergedLeaderboardView(List<? extends LeaderboardView> boards) {
+        this.boards = List.copyOf(boards);
+    }
+
+    @Override
+    public List<Entry> top(int limit) {
+        List<List<Entry>> runs = new ArrayList<>(boards.size());
+        for (LeaderboardView board : boards) {
+            runs.add(board.top(limit));
+        }
+        return distinct(LeaderboardIndex.merge(runs, Integer.MAX_VALUE, false), limit);
+    }
+
+    @Override
+    public int rank(String name) {
+        Prefix current = prefixHolding(name, 0);
+        return current.indexOf(name) + 1;
+    }
+
+    @Override
+    public List<Entry> around(String name, int radius) {
+        Prefix current = prefixHolding(name, radius);
+        int position = current.indexOf(name);
+        if (position < 0) {
+            return new ArrayList<>();
+        }
+        int from = Math.max(position - radius, 0);
+        int to = Math.min(position + radius + 1, current.entries().size());
+        return new ArrayList<>(current.entries().subList(from, to));
+    }
+
+    @Override
+    public synchronized int size() {
+        long version = version();
+        if (sizeVersion != version) {
+            if (prefix != null && prefix.version() == version && prefix.complete()) {
+                size = prefix.entries().size();
+            } else {
+                // Counting needs every name, but not their order
+                Set<String> names = new HashSet<>();
+                for (LeaderboardView board : boards) {
+                    for (Entry entry : board.top(Integer.MAX_VALUE)) {
+                        names.add(entry.name());
+                    }
+                }
+                size = names.size();
+            }
+            sizeVersion = version;
+        }
+        return size;
+    }
+
+    @Override
+    public long version() {
+        // Board versions only grow, so their sum changes whenever any of them does
+        long version = 0;
+        for (LeaderboardView board : boards) {
+            version += board.version();
+        }
+        return version;
+    }
+
+    /**
+     * Merges as much of the boards as it takes to list a player and the given number of
+     * players behind them, or every player if the player is not on any board.
+     */
+    private Prefix prefixHolding(String name, int behind) {
+        int limit = FIRST_LIMIT;
+        while (true) {
+            Prefix current = prefix(limit);
+            int position = current.indexOf(name);
+            if (current.complete() || (position >= 0 && position + behind < current.entries().size())) {
+                return current;
+            }
+            limit = (int) Math.min(Math.max((long) current.limit() * 2, (long) position + behind + 1), Integer.MAX_VALUE);
+        }
+    }
+
+    private synchronized Prefix prefix(int limit) {
+        // Read the version first, so updates made while merging cause another merge later
+        long version = version();
+        if (prefix == null || prefix.version() != version || (prefix.limit() < limit && !prefix.complete())) {
+            List<List<Entry>> runs = new ArrayList<>(boards.size());
+            boolean complete = true;
+            for (LeaderboardView board : boards) {
+                List<Entry> run = board.top(limit);
+                runs.add(run);
+                complete &= run.size() < limit;
+            }
+            // Past the limit, a player's best score may be missing from the runs
+            List<Entry> entries = distinct(LeaderboardIndex.merge(runs, Integer.MAX_VALUE, false),
+                    complete ? Integer.MAX_VALUE : limit);
+            prefix = new Prefix(version, limit, entries, complete);
+        }
+        return prefix;
+    }
+
+    /**
+     * Keeps the first, and so best, entry of every player in a run sorted in rank order.
+     */
+    private static List<Entry> distinct(List<Entry> merged, int limit) {
+        List<Entry> entries = new ArrayList<>(Math.min(merged.size(), limit));
+        Set<String> seen = new HashSet<>();
+        for (Entry entry : merged) {
+            if (entries.size() >= limit) {
+                break;
+            }
+            if (seen.add(entry.name())) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+}
@@ -1,5 +1,18 @@
-import java.util.Scanner;
+package hangaroo;
 
+/**
+ * The {@code Player} class is one player of a game: their name and the health, tokens
+ * and score of their current game.
+ *
+ * <p>
+ * Every session has its own {@code Player}, so players who pick the same name never
+ * share or reset each other's statistics. Leaderboards and histories identify a player
+ * by name.
+ * </p>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
 public class Player {
     private String name;
     private int health;
@@ -13,10 +26,7 @@ public class Player {
     
     
     Player(){
-        name = "Player";
-        health = MAX_HEALTH;
-        token = MIN_TOKEN;
-        score = MIN_SCORE;
+        this("Player");
     }
 
     Player (String name){
@@ -74,22 +84,21 @@ public class Player {
         token -= 1;
     }
 
-    public char getChar() {
-        Scanner sc = new Scanner(System.in);
-        return Character.toUpperCase(sc.next().charAt(0));
-    }
-
-    public void displayPlayerInfo() {
-        System.out.println("Name: " + name);
-        System.out.println("Health: " + health);
-        System.out.println("Token: " + token);
-        System.out.println("Score: " + score);
+    public void appendPlayerInfo(FrameRenderer frame) {
+        frame.append("Name: ").appendLine(name);
+        frame.append("Health: ").append(health).append("\n");
+        frame.append("Token: ").append(token).append("\n");
+        frame.append("Score: ").append(score).append("\n");
     }
 
-    void refresh() {
-        name = "Player";
+    void resetStats() {
         health = MAX_HEALTH;
         token = MIN_TOKEN;
         score = MIN_SCORE;
     }
+
+    void refresh() {
+        setName("Player");
+        resetStats();
+    }
 }
@@ -0,0 +1,404 @@
+package hangaroo;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The {@code ScoreboardClient} class pushes the scores recorded on this host to a
+ * central scoreboard service and pulls the service's top players back.
+ *
+ * <p>
+ * {@link #submit(String, String, int)} only puts the score in a queue, so the end of a
+ * game never waits for the network. The queue holds the latest score of each player on
+ * each board; a newer score replaces a queued one. It is bounded by
+ * {@code hangaroo.scoreboard.maxPending} (default 10000), and when it is full the
+ * oldest queued score is dropped. A sender thread takes up to
+ * {@code hangaroo.scoreboard.batchSize} scores (default 256) at a time, at most every
+ * {@code hangaroo.scoreboard.flushMillis} (default 1000), and posts them as one
+ * gzip-compressed request. Scores still queued when the process exits are not sent;
+ * a batch in flight when the client is stopped goes back into the queue.
+ * </p>
+ *
+ * <p>
+ * Every batch carries an {@code Idempotency-Key} made of a random host id and the
+ * batch number. A batch that fails with a network error, a 429 or a 5xx status is sent
+ * again with the same key after an exponential backoff with jitter, from 200 ms up to
+ * 30 s, so the service can ignore a batch it has already applied. A batch the service
+ * rejects with another status is dropped. Scores are absolute, not increments, so
+ * applying one twice does no harm either way.
+ * </p>
+ *
+ * <p>
+ * Every {@code hangaroo.scoreboard.pullSeconds} (default 30) the client asks for the
+ * top {@code hangaroo.scoreboard.topLimit} (default 10) players of every board, which
+ * {@link #remoteTop(String)} then returns.
+ * </p>
+ *
+ * <p>
+ * The protocol is plain text, one entry per line with tab-separated fields, and names
+ * URL-encoded:
+ * </p>
+ * <pre>
+ * POST /scores          board, name, score     (body gzip-compressed)
+ * GET  /top?limit=N     board, name, score     (gzip-compressed if accepted)
+ * </pre>
+ *
+ * <p>
+ * Syncing is off unless {@code hangaroo.scoreboard.url} is set, for example to
+ * {@code http://localhost:4100} for a {@link ScoreboardStub} started with
+ * {@code Main --scoreboard}.
+ * </p>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+final class ScoreboardClient {
+
+    private static final long MIN_BACKOFF_MILLIS = 200;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * The counts of scores sent, retried and dropped so far.
+     */
+    record Metrics(int pending, long batchesSent, long scoresSent, long retries, long dropped) {
+    }
+
+    /**
+     * A score waiting to be sent.
+     */
+    private record Score(String board, String name, int score) {
+    }
+
+    /**
+     * A batch ready to send, compressed once so that retries resend the same bytes.
+     */
+    private record Batch(String key, List<Score> scores, byte[] body) {
+    }
+
+    private static final class Holder {
+        static final ScoreboardClient INSTANCE = open();
+
+        private static ScoreboardClient open() {
+            String url = System.getProperty("hangaroo.scoreboard.url");
+            if (url == null || url.isBlank()) {
+                return null;
+            }
+            ScoreboardClient client = new ScoreboardClient(URI.create(url),
+                    Integer.getInteger("hangaroo.scoreboard.maxPending", 10_000),
+                    Integer.getInteger("hangaroo.scoreboard.batchSize", 256),
+                    Long.getLong("hangaroo.scoreboard.flushMillis", 1000),
+                    Long.getLong("hangaroo.scoreboard.pullSeconds", 30),
+                    Integer.getInteger("hangaroo.scoreboard.topLimit", 10));
+            client.start();
+            return client;
+        }
+    }
+
+    private final URI base;
+    private final int maxPending;
+    private final int batchSize;
+    private final long flushMillis;
+    private final long pullSeconds;
+    private final int topLimit;
+    private final String hostId = UUID.randomUUID().toString();
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
+    private final LinkedHashMap<String, Score> pending = new LinkedHashMap<>();
+    private long batchNumber;
+    private volatile Map<String, List<LeaderboardView.Entry>> remoteTop = Map.of();
+    private Thread sender;
+    private ScheduledExecutorService puller;
+
+    private final AtomicLong batchesSent = new AtomicLong();
+    private final AtomicLong scoresSent = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Creates a client for the given service. No thread runs until {@link #start()}.
+     *
+     * @param base        The base URL of the service.
+     * @param maxPending  The most scores kept waiting to be sent.
+     * @param batchSize   The most scores sent in one request.
+     * @param flushMillis The shortest time between two requests.
+     * @param pullSeconds The time between two pulls of the top players.
+     * @param topLimit    The number of top players pulled per board.
+     */
+    ScoreboardClient(URI base, int maxPending, int batchSize, long flushMillis, long pullSeconds, int topLimit) {
+        this.base = base;
+        this.maxPending = Math.max(maxPending, 1);
+        this.batchSize = Math.max(batchSize, 1);
+        this.flushMillis = Math.max(flushMillis, 0);
+        this.pullSeconds = Math.max(pullSeconds, 1);
+        this.topLimit = Math.max(topLimit, 1);
+    }
+
+    /**
+     * Retrieves the client of the service named by {@code hangaroo.scoreboard.url},
+     * starting it on first use.
+     *
+     * @return The shared client, or {@code null} if syncing is off.
+     */
+    static ScoreboardClient shared() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Starts the sender and puller threads.
+     */
+    synchronized void start() {
+        sender = new Thread(this::runSender, "scoreboard-sender");
+        sender.setDaemon(true);
+        sender.start();
+        puller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "scoreboard-puller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        puller.scheduleWithFixedDelay(this::pull, 0, pullSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops the sender and puller threads. A batch still being sent or retried is put
+     * back in the queue, where it is counted as pending.
+     *
+     * @throws InterruptedException If interrupted while waiting for the sender to stop.
+     */
+    void stop() throws InterruptedException {
+        Thread stopping;
+        synchronized (this) {
+            stopping = sender;
+            if (puller != null) {
+                puller.shutdownNow();
+            }
+        }
+        if (stopping != null) {
+            stopping.interrupt();
+            stopping.join();
+        }
+    }
+
+    /**
+     * Queues the score of a player for the service. Never blocks on the network.
+     *
+     * @param board The name of the board the score was recorded on.
+     * @param name  The name of the player.
+     * @param score The player's score.
+     */
+    synchronized void submit(String board, String name, int score) {
+        String key = board + '\n' + name;
+        if (!pending.containsKey(key) && pending.size() >= maxPending) {
+            Iterator<Score> oldest = pending.values().iterator();
+            oldest.next();
+            oldest.remove();
+            dropped.incrementAndGet();
+        }
+        if (pending.isEmpty()) {
+            notifyAll();
+        }
+        // Re-insert so a player updated again moves to the back of the queue
+        pending.remove(key);
+        pending.put(key, new Score(board, name, score));
+    }
+
+    /**
+     * Retrieves the top players of a board as last pulled from the service.
+     *
+     * @param board The name of the board.
+     * @return The top players in rank order, or an empty list if none were pulled yet.
+     */
+    List<LeaderboardView.Entry> remoteTop(String board) {
+        return remoteTop.getOrDefault(board, List.of());
+    }
+
+    /**
+     * Retrieves the counts of scores sent, retried and dropped so far.
+     *
+     * @return The metrics of the client.
+     */
+    Metrics getMetrics() {
+        int queued;
+        synchronized (this) {
+            queued = pending.size();
+        }
+        return new Metrics(queued, batchesSent.get(), scoresSent.get(), retries.get(), dropped.get());
+    }
+
+    private void runSender() {
+        while (true) {
+            Batch batch = null;
+            try {
+                batch = nextBatch();
+                long backoff = MIN_BACKOFF_MILLIS;
+                while (!send(batch)) {
+                    retries.incrementAndGet();
+                    // Full jitter keeps many hosts from retrying in step
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1));
+                    backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+                }
+                batch = null;
+                Thread.sleep(flushMillis);
+            } catch (InterruptedException e) {
+                if (batch != null) {
+                    requeue(batch);
+                }
+                return;
+            } catch (RuntimeException e) {
+                // One bad batch must not stop the sender for good
+                e.printStackTrace();
+                if (batch != null) {
+                    dropped.addAndGet(batch.scores().size());
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for queued scores and takes up to a batch of them.
+     */
+    private synchronized Batch nextBatch() throws InterruptedException {
+        while (pending.isEmpty()) {
+            wait();
+        }
+        List<Score> scores = new ArrayList<>(Math.min(pending.size(), batchSize));
+        Iterator<Score> iterator = pending.values().iterator();
+        while (iterator.hasNext() && scores.size() < batchSize) {
+            scores.add(iterator.next());
+            iterator.remove();
+        }
+        StringBuilder body = new StringBuilder(scores.size() * 32);
+        for (Score score : scores) {
+            body.append(score.board()).append('\t')
+                    .append(URLEncoder.encode(score.name(), StandardCharsets.UTF_8)).append('\t')
+                    .append(score.score()).append('\n');
+        }
+        return new Batch(hostId + "-" + ++batchNumber, scores, gzip(body.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Puts the scores of an unsent batch back in the queue, unless a newer score of the
+     * same player has been queued meanwhile.
+     */
+    private synchronized void requeue(Batch batch) {
+        for (Score score : batch.scores()) {
+            String key = score.board() + '\n' + score.name();
+            if (pending.containsKey(key)) {
+                continue;
+            }
+            if (pending.size() >= maxPending) {
+                dropped.incrementAndGet();
+            } else {
+                pending.put(key, score);
+            }
+        }
+    }
+
+    /**
+     * Posts a batch once.
+     *
+     * @return Whether the batch is done with, sent or rejected for good; {@code false}
+     *         if it should be retried.
+     * @throws InterruptedException If interrupted while waiting for the response; the
+     *                              batch has then not been sent for certain.
+     */
+    private boolean send(Batch batch) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(base.resolve("/scores"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "text/plain; charset=utf-8")
+                .header("Content-Encoding", "gzip")
+                .header("Idempotency-Key", batch.key())
+                .POST(HttpRequest.BodyPublishers.ofByteArray(batch.body()))
+                .build();
+        int status;
+        try {
+            status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return false;
+        }
+        if (status == 429 || status >= 500) {
+            return false;
+        }
+        if (status / 100 == 2) {
+            batchesSent.incrementAndGet();
+            scoresSent.addAndGet(batch.scores().size());
+        } else {
+            dropped.addAndGet(batch.scores().size());
+        }
+        return true;
+    }
+
+    private void pull() {
+        HttpRequest request = HttpRequest.newBuilder(base.resolve("/top?limit=" + topLimit))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+        try {
+            HttpResponse<InputStream> response = http.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() != 200) {
+                    return;
+                }
+                boolean gzipped = response.headers().firstValue("Content-Encoding").orElse("").equals("gzip");
+                remoteTop = parseTop(gzipped ? new GZIPInputStream(body) : body);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Keep the last pulled top until the service answers again
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Map<String, List<LeaderboardView.Entry>> parseTop(InputStream in) throws IOException {
+        Map<String, List<LeaderboardView.Entry>> top = new HashMap<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            String[] fields = line.split("\t");
+            if (fields.length != 3) {
+                continue;
+            }
+            List<LeaderboardView.Entry> board = top.computeIfAbsent(fields[0], b -> new ArrayList<>());
+            if (board.size() < topLimit) {
+                board.add(new LeaderboardView.Entry(URLDecoder.decode(fields[1], StandardCharsets.UTF_8),
+                        Integer.parseInt(fields[2])));
+            }
+        }
+        return top;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
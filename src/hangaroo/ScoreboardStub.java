@@ -0,0 +1,263 @@
+package hangaroo;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The {@code ScoreboardStub} class is a small in-process stand-in for the central
+ * scoreboard service that a {@link ScoreboardClient} syncs with, so the sync can be
+ * tried and tested without a network.
+ *
+ * <p>
+ * The stub speaks the client's protocol on the loopback interface. It keeps a
+ * {@link LeaderboardIndex} per board, applies every batch it has not seen before and
+ * answers a batch whose {@code Idempotency-Key} it remembers with success without
+ * applying it again. A batch is parsed in full before any of it is applied, and its key
+ * is only remembered once it has been applied, so a malformed batch is rejected with 400
+ * as a whole and a corrected retry under the same key still counts. It remembers the
+ * last 10000 keys. {@link #failNext(int)} makes it
+ * answer the next requests with 503, to exercise the client's retries.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre> {@code
+ * java -cp out hangaroo.Main --scoreboard 4100
+ * java -Dhangaroo.scoreboard.url=http://localhost:4100 -cp out hangaroo.Main
+ * }</pre>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+final class ScoreboardStub {
+
+    /**
+     * The port the stub listens on when none is given.
+     */
+    public static final int DEFAULT_PORT = 4100;
+
+    private static final int REMEMBERED_KEYS = 10_000;
+    private static final int MAX_TOP_LIMIT = 100;
+
+    /**
+     * One line of a posted batch.
+     */
+    private record Score(String board, String name, int score) {
+    }
+
+    private final HttpServer server;
+    private final Map<String, LeaderboardIndex> boards = new TreeMap<>();
+    private final Map<String, Boolean> seenKeys = new LinkedHashMap<>(16, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > REMEMBERED_KEYS;
+        }
+    };
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicLong batchesApplied = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+
+    /**
+     * Creates a stub listening on the given loopback port. Nothing is served until
+     * {@link #start()}.
+     *
+     * @param port The port to listen on, or 0 for any free port.
+     * @throws IOException If the port cannot be bound.
+     */
+    ScoreboardStub(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/scores", this::handleScores);
+        server.createContext("/top", this::handleTop);
+    }
+
+    /**
+     * Starts serving requests on a background thread.
+     */
+    void start() {
+        server.start();
+    }
+
+    /**
+     * Stops serving requests.
+     */
+    void stop() {
+        server.stop(0);
+    }
+
+    /**
+     * Retrieves the port the stub listens on.
+     *
+     * @return The bound port.
+     */
+    int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Makes the stub fail the next requests with 503 Service Unavailable.
+     *
+     * @param requests The number of requests to fail.
+     */
+    void failNext(int requests) {
+        failures.set(requests);
+    }
+
+    /**
+     * Retrieves the number of batches applied so far, not counting repeated ones.
+     *
+     * @return The number of applied batches.
+     */
+    long getBatchesApplied() {
+        return batchesApplied.get();
+    }
+
+    /**
+     * Retrieves the number of batches ignored because their key was seen before.
+     *
+     * @return The number of repeated batches.
+     */
+    long getDuplicates() {
+        return duplicates.get();
+    }
+
+    /**
+     * Retrieves the score of a player on a board.
+     *
+     * @param board The name of the board.
+     * @param name  The name of the player.
+     * @return The player's score, or {@code null} if the stub has none.
+     */
+    synchronized Integer score(String board, String name) {
+        LeaderboardIndex index = boards.get(board);
+        return index == null ? null : index.score(name);
+    }
+
+    private void handleScores(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            if (failures.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            String key = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+            if (key == null) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            InputStream in = exchange.getRequestBody();
+            if ("gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+                in = new GZIPInputStream(in);
+            }
+            List<Score> scores;
+            try {
+                scores = parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            } catch (RuntimeException e) {
+                // Nothing of a malformed batch is applied, and its key is not remembered
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            synchronized (this) {
+                if (seenKeys.containsKey(key)) {
+                    duplicates.incrementAndGet();
+                } else {
+                    // Parsed in full first, so the batch is applied all at once or not at all
+                    for (Score score : scores) {
+                        boards.computeIfAbsent(score.board(), board -> new LeaderboardIndex(1))
+                                .upsert(score.name(), score.score());
+                    }
+                    seenKeys.put(key, Boolean.TRUE);
+                    batchesApplied.incrementAndGet();
+                }
+            }
+            exchange.sendResponseHeaders(204, -1);
+        }
+    }
+
+    /**
+     * Parses the lines of a batch.
+     *
+     * @throws IllegalArgumentException If a line does not hold a board, a name and a score.
+     */
+    private static List<Score> parse(String body) {
+        List<Score> scores = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            String[] fields = line.split("\t");
+            if (fields.length != 3) {
+                throw new IllegalArgumentException("Malformed score line: " + line);
+            }
+            scores.add(new Score(fields[0], URLDecoder.decode(fields[1], StandardCharsets.UTF_8),
+                    Integer.parseInt(fields[2])));
+        }
+        return scores;
+    }
+
+    private void handleTop(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            int limit = 10;
+            String query = exchange.getRequestURI().getQuery();
+            if (query != null && query.startsWith("limit=")) {
+                try {
+                    limit = Math.min(Math.max(Integer.parseInt(query.substring("limit=".length())), 1), MAX_TOP_LIMIT);
+                } catch (NumberFormatException e) {
+                    exchange.sendResponseHeaders(400, -1);
+                    return;
+                }
+            }
+            StringBuilder body = new StringBuilder();
+            synchronized (this) {
+                for (Map.Entry<String, LeaderboardIndex> board : boards.entrySet()) {
+                    for (LeaderboardView.Entry entry : board.getValue().top(limit)) {
+                        body.append(board.getKey()).append('\t')
+                                .append(URLEncoder.encode(entry.name(), StandardCharsets.UTF_8)).append('\t')
+                                .append(entry.score()).append('\n');
+                    }
+                }
+            }
+            byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+            String accepted = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            if (accepted != null && accepted.contains("gzip")) {
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                    gzip.write(bytes);
+                }
+                bytes = compressed.toByteArray();
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
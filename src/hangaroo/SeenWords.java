@@ -0,0 +1,372 @@
+package hangaroo;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * The {@code SeenWords} class is a player's persistent history of the words they have
+ * already been dealt, stored as a compressed bitset over stable word IDs.
+ *
+ * <p>
+ * Word IDs come from {@link WordCorpus#getId(Difficulty, int)}. They are positions in
+ * the append-only {@link WordIds} table, so they stay the same when words are added to
+ * or removed from the XML files, and they are dense: the words of one difficulty share
+ * a few containers. The set is organised like a roaring bitmap: IDs are split by their upper 16
+ * bits into containers, kept sorted by that key. A container holds the lower 16 bits
+ * either as a sorted {@code char} array while it has at most 4096 entries, or as a
+ * 65536-bit bitmap once it grows beyond that. Membership tests are a binary search
+ * over the keys followed by a binary search or a single bit test.
+ * </p>
+ *
+ * <p>
+ * Histories are stored one file per player under {@code AppData/Players}. A file is
+ * named by the SHA-256 digest of the player's name in hex, so its name has the same
+ * length however long the player's name is, and files are spread over 256
+ * subdirectories by the first byte of the digest. The file starts with a short header
+ * holding the player's name, then each container's key, kind, cardinality and payload,
+ * so a history takes about two bytes per word on disk, or a fixed 8 KiB per container
+ * once it is a bitmap, and loads with a single read. Should two names ever share a
+ * digest, the name in the header tells them apart and the second player's history goes
+ * to the next free file, {@code <digest>-1.seen}. A file that is not a valid history of
+ * the current version, including one whose containers are out of order or whose
+ * counts do not match their contents, is discarded and the history starts over empty.
+ * </p>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+final class SeenWords {
+
+    /**
+     * The directory under which player histories are stored.
+     */
+    public static final String PLAYERS_PATH = "BootlegHangaroo/AppData/Players";
+
+    private static final int MAGIC = 0x42485357; // "BHSW"
+    private static final int VERSION = 3;
+    private static final int MAX_NAME_BYTES = 1 << 20;
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_LONGS = 1 << 16 >>> 6;
+    private static final byte ARRAY = 0;
+    private static final byte BITMAP = 1;
+
+    private final String playerName;
+    private final Path file;
+    private char[] keys = new char[4];
+    private Object[] containers = new Object[4]; // char[] (sorted values) or long[] (bitmap)
+    private int[] cardinalities = new int[4];
+    private int size;
+
+    /**
+     * Creates an empty history that is kept in memory only.
+     */
+    SeenWords() {
+        this(null, null);
+    }
+
+    private SeenWords(String playerName, Path file) {
+        this.playerName = playerName;
+        this.file = file;
+    }
+
+    /**
+     * Loads the history of a player, or starts an empty one if the player has none.
+     *
+     * @param playerName The name of the player.
+     * @return The player's history.
+     */
+    static SeenWords load(String playerName) {
+        for (int attempt = 0; ; attempt++) {
+            SeenWords seen = new SeenWords(playerName, pathOf(playerName, attempt));
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(seen.file)))) {
+                if (seen.read(in)) {
+                    return seen;
+                }
+                // Another player's name has the same digest
+            } catch (NoSuchFileException e) {
+                // A new player starts with an empty history
+                return seen;
+            } catch (IOException e) {
+                e.printStackTrace();
+                seen.clear();
+                return seen;
+            }
+        }
+    }
+
+    /**
+     * Saves the history to its file, replacing the previous version atomically.
+     */
+    void save() {
+        if (file == null) {
+            return;
+        }
+        Path temp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            // A temporary file of its own, so two sessions of the player never write the same one
+            temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                write(out);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            e.printStackTrace();
+            try {
+                if (temp != null) {
+                    Files.deleteIfExists(temp);
+                }
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a word ID is in the history.
+     *
+     * @param id The word ID.
+     * @return True if the word has been seen.
+     */
+    boolean contains(int id) {
+        int i = Arrays.binarySearch(keys, 0, size, (char) (id >>> 16));
+        if (i < 0) {
+            return false;
+        }
+        char low = (char) id;
+        if (containers[i] instanceof long[] bitmap) {
+            return (bitmap[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) containers[i], 0, cardinalities[i], low) >= 0;
+    }
+
+    /**
+     * Adds a word ID to the history.
+     *
+     * @param id The word ID.
+     */
+    void add(int id) {
+        char high = (char) (id >>> 16);
+        char low = (char) id;
+        int i = Arrays.binarySearch(keys, 0, size, high);
+        if (i < 0) {
+            i = -i - 1;
+            insertContainer(i, high, new char[4]);
+        }
+        if (containers[i] instanceof long[] bitmap) {
+            if ((bitmap[low >>> 6] & (1L << low)) == 0) {
+                bitmap[low >>> 6] |= 1L << low;
+                cardinalities[i]++;
+            }
+            return;
+        }
+        char[] values = (char[]) containers[i];
+        int cardinality = cardinalities[i];
+        int j = Arrays.binarySearch(values, 0, cardinality, low);
+        if (j >= 0) {
+            return;
+        }
+        j = -j - 1;
+        if (cardinality == ARRAY_MAX) {
+            long[] bitmap = new long[BITMAP_LONGS];
+            for (int k = 0; k < cardinality; k++) {
+                bitmap[values[k] >>> 6] |= 1L << values[k];
+            }
+            bitmap[low >>> 6] |= 1L << low;
+            containers[i] = bitmap;
+        } else {
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(cardinality * 2, ARRAY_MAX));
+                containers[i] = values;
+            }
+            System.arraycopy(values, j, values, j + 1, cardinality - j);
+            values[j] = low;
+        }
+        cardinalities[i] = cardinality + 1;
+    }
+
+    /**
+     * Removes a word ID from the history.
+     *
+     * @param id The word ID.
+     */
+    void remove(int id) {
+        int i = Arrays.binarySearch(keys, 0, size, (char) (id >>> 16));
+        if (i < 0) {
+            return;
+        }
+        char low = (char) id;
+        if (containers[i] instanceof long[] bitmap) {
+            if ((bitmap[low >>> 6] & (1L << low)) != 0) {
+                bitmap[low >>> 6] &= ~(1L << low);
+                cardinalities[i]--;
+            }
+        } else {
+            char[] values = (char[]) containers[i];
+            int j = Arrays.binarySearch(values, 0, cardinalities[i], low);
+            if (j < 0) {
+                return;
+            }
+            System.arraycopy(values, j + 1, values, j, cardinalities[i] - j - 1);
+            cardinalities[i]--;
+        }
+        if (cardinalities[i] == 0) {
+            System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+            System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+            System.arraycopy(cardinalities, i + 1, cardinalities, i, size - i - 1);
+            containers[--size] = null;
+        }
+    }
+
+    /**
+     * Retrieves the number of word IDs in the history.
+     *
+     * @return The number of seen words.
+     */
+    int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += cardinalities[i];
+        }
+        return cardinality;
+    }
+
+    /**
+     * Removes every word ID from the history.
+     */
+    void clear() {
+        Arrays.fill(containers, 0, size, null);
+        size = 0;
+    }
+
+    private void insertContainer(int i, char key, Object container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+            cardinalities = Arrays.copyOf(cardinalities, size * 2);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        System.arraycopy(cardinalities, i, cardinalities, i + 1, size - i);
+        keys[i] = key;
+        containers[i] = container;
+        cardinalities[i] = 0;
+        size++;
+    }
+
+    private void write(DataOutputStream out) throws IOException {
+        byte[] name = playerName.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(name.length);
+        out.write(name);
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeChar(keys[i]);
+            if (containers[i] instanceof long[] bitmap) {
+                out.writeByte(BITMAP);
+                out.writeInt(cardinalities[i]);
+                for (long bits : bitmap) {
+                    out.writeLong(bits);
+                }
+            } else {
+                char[] values = (char[]) containers[i];
+                out.writeByte(ARRAY);
+                out.writeInt(cardinalities[i]);
+                for (int j = 0; j < cardinalities[i]; j++) {
+                    out.writeChar(values[j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a history file into this empty history, checking it as it goes.
+     *
+     * @return False if the file is the history of another player whose name has the same digest.
+     * @throws IOException If the file cannot be read or is not a valid history.
+     */
+    private boolean read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Not a seen-words file of version " + VERSION + ": " + file);
+        }
+        int nameLength = in.readInt();
+        if (nameLength < 0 || nameLength > MAX_NAME_BYTES) {
+            throw new IOException("Bad player name length " + nameLength + " in " + file);
+        }
+        byte[] name = new byte[nameLength];
+        in.readFully(name);
+        if (!new String(name, StandardCharsets.UTF_8).equals(playerName)) {
+            return false;
+        }
+
+        int count = in.readInt();
+        if (count < 0 || count > 1 << 16) {
+            throw new IOException("Bad container count " + count + " in " + file);
+        }
+        for (int i = 0; i < count; i++) {
+            char key = in.readChar();
+            if (i > 0 && key <= keys[i - 1]) {
+                throw new IOException("Containers out of order in " + file);
+            }
+            byte kind = in.readByte();
+            int cardinality = in.readInt();
+            Object container;
+            if (kind == BITMAP) {
+                long[] bitmap = new long[BITMAP_LONGS];
+                int bits = 0;
+                for (int j = 0; j < bitmap.length; j++) {
+                    bitmap[j] = in.readLong();
+                    bits += Long.bitCount(bitmap[j]);
+                }
+                if (cardinality != bits || cardinality == 0) {
+                    throw new IOException("Bitmap cardinality " + cardinality + " does not match its "
+                            + bits + " bits in " + file);
+                }
+                container = bitmap;
+            } else if (kind == ARRAY) {
+                if (cardinality <= 0 || cardinality > ARRAY_MAX) {
+                    throw new IOException("Bad array cardinality " + cardinality + " in " + file);
+                }
+                char[] values = new char[cardinality];
+                for (int j = 0; j < cardinality; j++) {
+                    values[j] = in.readChar();
+                    if (j > 0 && values[j] <= values[j - 1]) {
+                        throw new IOException("Array values out of order in " + file);
+                    }
+                }
+                container = values;
+            } else {
+                throw new IOException("Unknown container kind " + kind + " in " + file);
+            }
+            insertContainer(size, key, container);
+            cardinalities[size - 1] = cardinality;
+        }
+        return true;
+    }
+
+    private static Path pathOf(String playerName, int attempt) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(playerName.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform implements SHA-256
+            throw new IllegalStateException(e);
+        }
+        String hex = HexFormat.of().formatHex(digest);
+        String fileName = attempt == 0 ? hex + ".seen" : hex + "-" + attempt + ".seen";
+        return Path.of(PLAYERS_PATH, hex.substring(0, 2), fileName);
+    }
+}
@@ -0,0 +1,194 @@
+package hangaroo;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code SessionHost} class hosts many players in one JVM by running each player's
+ * {@link ConsoleClient} on its own virtual thread.
+ *
+ * <p>
+ * Every accepted connection gets the full console experience: the same menu loop and
+ * game frames as a local player, reading from and writing to the socket. Because the
+ * client runs on a virtual thread, a player waiting at a prompt does not hold on to a
+ * platform thread.
+ * </p>
+ *
+ * <p>
+ * Sessions are kept in a bounded registry. Once {@code maxSessions} players are
+ * connected, new connections are turned away. A background reaper shuts down the input
+ * of any session that has not sent input for longer than the idle timeout, which ends
+ * its client; the session's own thread then says goodbye and drops the session from
+ * the registry. The reaper itself never writes to a socket, so a player who stops
+ * reading cannot stall it. A session still connected on the reaper's
+ * next pass, for instance because its thread is stuck writing to such a player, has its
+ * socket closed.
+ * </p>
+ *
+ * <p>
+ * The limits are read from the {@code hangaroo.maxSessions} (default 1000) and
+ * {@code hangaroo.idleTimeoutSeconds} (default 300) system properties.
+ * </p>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+class SessionHost {
+
+    /**
+     * The port the host listens on when none is given.
+     */
+    public static final int DEFAULT_PORT = 4001;
+
+    private final int port;
+    private final int maxSessions;
+    private final long idleTimeoutMillis;
+    private final Semaphore slots;
+    private final Map<Long, HostedSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+
+    /**
+     * A connected player: its socket, when it last sent input and whether it has been
+     * evicted.
+     */
+    private static final class HostedSession {
+        final long id;
+        final Socket socket;
+        volatile long lastActivity = System.currentTimeMillis();
+        volatile boolean evicted;
+
+        HostedSession(long id, Socket socket) {
+            this.id = id;
+            this.socket = socket;
+        }
+    }
+
+    /**
+     * Creates a host with the limits taken from the system properties.
+     *
+     * @param port The TCP port to listen on.
+     */
+    SessionHost(int port) {
+        this(port, Integer.getInteger("hangaroo.maxSessions", 1000),
+                TimeUnit.SECONDS.toMillis(Long.getLong("hangaroo.idleTimeoutSeconds", 300)));
+    }
+
+    /**
+     * Creates a host with explicit limits.
+     *
+     * @param port              The TCP port to listen on.
+     * @param maxSessions       The most sessions allowed at once.
+     * @param idleTimeoutMillis How long a session may go without input before it is evicted.
+     */
+    SessionHost(int port, int maxSessions, long idleTimeoutMillis) {
+        this.port = port;
+        this.maxSessions = maxSessions;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.slots = new Semaphore(maxSessions);
+    }
+
+    /**
+     * Accepts connections until the thread is interrupted, starting a virtual thread
+     * for each.
+     *
+     * @throws IOException If the server socket cannot be opened.
+     */
+    void run() throws IOException {
+        ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(idleTimeoutMillis / 4, 1);
+        reaper.scheduleAtFixedRate(this::evictIdleSessions, period, period, TimeUnit.MILLISECONDS);
+
+        try (ServerSocket server = new ServerSocket(port)) {
+            System.out.println("Bootleg Hangaroo host listening on port " + port
+                    + " (max " + maxSessions + " sessions)");
+            while (!Thread.currentThread().isInterrupted()) {
+                Socket socket = server.accept();
+                if (!slots.tryAcquire()) {
+                    reject(socket);
+                    continue;
+                }
+                HostedSession session = new HostedSession(nextId.incrementAndGet(), socket);
+                sessions.put(session.id, session);
+                Thread.ofVirtual().name("session-" + session.id).start(() -> serve(session));
+            }
+        } finally {
+            reaper.shutdownNow();
+        }
+    }
+
+    /**
+     * Retrieves the number of sessions currently connected.
+     *
+     * @return The number of live sessions.
+     */
+    int getSessionCount() {
+        return sessions.size();
+    }
+
+    private void serve(HostedSession session) {
+        try (Socket socket = session.socket) {
+            InputStream in = new FilterInputStream(socket.getInputStream()) {
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int read = super.read(b, off, len);
+                    session.lastActivity = System.currentTimeMillis();
+                    return read;
+                }
+            };
+            PrintStream out = new PrintStream(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            new ConsoleClient(new ConsoleInput(in), out, new FrameRenderer(out, false)).run();
+            if (session.evicted) {
+                out.println();
+                out.println("Session closed after " + idleTimeoutMillis / 1000 + " seconds of inactivity.");
+            }
+        } catch (IOException e) {
+            // The player disconnected
+        } finally {
+            sessions.remove(session.id);
+            slots.release();
+        }
+    }
+
+    private void evictIdleSessions() {
+        long now = System.currentTimeMillis();
+        for (HostedSession session : sessions.values()) {
+            try {
+                if (session.evicted) {
+                    // Its thread is stuck writing to a player who does not read; this fails the write
+                    session.socket.close();
+                } else if (now - session.lastActivity > idleTimeoutMillis) {
+                    session.evicted = true;
+                    // The client's pending read sees the end of the input, which ends its thread
+                    session.socket.shutdownInput();
+                }
+            } catch (IOException e) {
+                // Already closed
+            }
+        }
+    }
+
+    private static void reject(Socket socket) {
+        try (socket) {
+            PrintStream out = new PrintStream(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            out.println("The server is full, please try again later.");
+        } catch (IOException e) {
+            // Nothing more to tell a client that is gone
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package hangaroo;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class Stage {
+    private Word word;
+    public static final int MIN_STAGE = 1;
+    public static final int MAX_WORD_LENGTH = Long.SIZE;
+    private static final int ALPHABET_SIZE = 26;
+    private String string;
+    private int hiddenLetters; // Bit n is set while the letter 'A' + n is still hidden
+    private long hiddenPositions; // Bit i is set while the character at position i is still hidden
+    private final long[] letterPositions = new long[ALPHABET_SIZE]; // Bit i of entry n is set if position i holds 'A' + n
+    private final byte[] letterSlots = new byte[MAX_WORD_LENGTH]; // The positions that hold a letter, in order
+
+    Stage() { // An empty stage to be filled with reset, so one instance can serve every stage of a game
+    }
+
+    void reset(Word word, Difficulty difficulty, SplittableRandom random) {
+        String string = word.getWord();
+        if (string.length() > MAX_WORD_LENGTH) {
+            throw new IllegalArgumentException("Word is longer than " + MAX_WORD_LENGTH + " characters: " + string);
+        }
+        this.word = word;
+        this.string = string;
+        Arrays.fill(letterPositions, 0);
+        int letters = 0;
+        for (int i = 0; i < string.length(); i++) {
+            int letterIndex = letterIndex(string.charAt(i));
+            if (letterIndex >= 0) {
+                letterPositions[letterIndex] |= 1L << i;
+                letterSlots[letters++] = (byte) i;
+            }
+        }
+        int limit = switch (difficulty) {
+            case EASY -> 2;
+            case MEDIUM -> 1;
+            case HARD -> 0;
+        };
+        // Only letters are hidden, so a word with spaces or punctuation still has something to guess
+        int blockedCharactersSize = Math.min(random.nextInt(Math.max(letters - limit, 1)) + 1, letters); //Random number of blocked characters limit depends on difficulty level
+        // Floyd's sampling: picks blockedCharactersSize distinct letter slots with exactly that many draws
+        long blockedSlots = 0;
+        for (int j = letters - blockedCharactersSize; j < letters; j++) {
+            int index = random.nextInt(j + 1);
+            blockedSlots |= (blockedSlots & (1L << index)) == 0 ? 1L << index : 1L << j;
+        }
+        hiddenLetters = 0;
+        hiddenPositions = 0;
+        for (long slots = blockedSlots; slots != 0; slots &= slots - 1) {
+            int letterIndex = letterIndex(string.charAt(letterSlots[Long.numberOfTrailingZeros(slots)]));
+            hiddenLetters |= 1 << letterIndex;
+            // Every occurrence of a hidden letter stays hidden until that letter is guessed
+            hiddenPositions |= letterPositions[letterIndex];
+        }
+    }
+
+    private static int letterIndex(char c) { // Maps 'A'-'Z' (either case) to 0-25, anything else to -1
+        int letterIndex = Character.toUpperCase(c) - 'A';
+        return letterIndex >= 0 && letterIndex < ALPHABET_SIZE ? letterIndex : -1;
+    }
+
+    public String retrieveGuessedLetters() {
+        StringBuilder stringBuilder = new StringBuilder(string.length() * 2);
+        for (int i = 0; i < string.length(); i++) {
+            if ((hiddenPositions & (1L << i)) != 0) {
+                stringBuilder.append("_ ");
+            } else {
+                stringBuilder.append(string.charAt(i)).append(" ");
+            }
+        }
+        return stringBuilder.toString();
+    }
+
+    public boolean guessLetter(char letter) {
+        int letterIndex = letterIndex(letter);
+        if (letterIndex < 0 || (hiddenLetters & (1 << letterIndex)) == 0) {
+            return false;
+        }
+        hiddenLetters &= ~(1 << letterIndex);
+        hiddenPositions &= ~letterPositions[letterIndex];
+        return true;
+    }
+
+    public Word getWord() {
+        return word;
+    }
+
+    public boolean getIsGuessed() {
+        return hiddenLetters == 0;
+    }
+}
@@ -0,0 +1,186 @@
+package hangaroo;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code TimingWheel} class is a hashed timing wheel that drives the turn clocks of
+ * every live game session from a single thread.
+ *
+ * <p>
+ * The wheel is a ring of buckets, each covering one tick. A timeout is placed in the
+ * bucket of its deadline tick, together with the number of full rotations left before
+ * it is due. Every tick the wheel thread visits one bucket and fires the timeouts whose
+ * rotations have run out. Scheduling and cancelling are O(1): a timeout is linked into
+ * or out of a doubly linked bucket list under a short lock.
+ * </p>
+ *
+ * <p>
+ * A {@link Timeout} is created once by its owner and re-armed for every turn, so
+ * scheduling a turn clock does not allocate. Because a timeout may fire just as it is
+ * being cancelled, a task must check for itself whether its deadline still applies.
+ * Expired timeouts are chained through their own {@code nextExpired} field, so a task
+ * may safely re-arm its timeout while the wheel is still running the other expiries.
+ * </p>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+final class TimingWheel {
+
+    /**
+     * A reusable timer entry. It can be scheduled on one wheel at a time.
+     */
+    static final class Timeout {
+        private final Runnable task;
+        private Timeout prev;
+        private Timeout next;
+        private Timeout nextExpired;
+        private int bucket = -1;
+        private long rounds;
+
+        /**
+         * Creates a timeout that runs the given task when it fires.
+         *
+         * @param task The task to run on the wheel thread.
+         */
+        Timeout(Runnable task) {
+            this.task = task;
+        }
+    }
+
+    private static final class Holder {
+        static final TimingWheel INSTANCE = new TimingWheel(100, 512);
+    }
+
+    private final long tickNanos;
+    private final int mask;
+    private final Timeout[] buckets;
+    private long tick;
+    private int size;
+
+    /**
+     * Creates a wheel and starts its thread.
+     *
+     * @param tickMillis The length of one tick; deadlines are rounded up to it.
+     * @param wheelSize  The number of buckets; rounded up to a power of two.
+     */
+    TimingWheel(long tickMillis, int wheelSize) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        int capacity = Integer.highestOneBit(Math.max(wheelSize - 1, 1)) << 1;
+        this.mask = capacity - 1;
+        this.buckets = new Timeout[capacity];
+        Thread thread = new Thread(this::run, "timing-wheel");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Retrieves the wheel shared by every session in the process.
+     *
+     * @return The shared wheel, with 100 ms ticks.
+     */
+    static TimingWheel shared() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Schedules a timeout to fire after the given delay, first cancelling it if it was
+     * already scheduled.
+     *
+     * @param timeout     The timeout to schedule.
+     * @param delayMillis The delay before the timeout fires.
+     */
+    synchronized void schedule(Timeout timeout, long delayMillis) {
+        unlink(timeout);
+        long ticks = Math.max(1, (TimeUnit.MILLISECONDS.toNanos(delayMillis) + tickNanos - 1) / tickNanos);
+        long deadline = tick + ticks;
+        timeout.rounds = (ticks - 1) / buckets.length;
+        timeout.bucket = (int) (deadline & mask);
+        timeout.prev = null;
+        timeout.next = buckets[timeout.bucket];
+        if (timeout.next != null) {
+            timeout.next.prev = timeout;
+        }
+        buckets[timeout.bucket] = timeout;
+        size++;
+    }
+
+    /**
+     * Cancels a timeout. Does nothing if it is not scheduled.
+     *
+     * @param timeout The timeout to cancel.
+     */
+    synchronized void cancel(Timeout timeout) {
+        unlink(timeout);
+    }
+
+    /**
+     * Retrieves the number of timeouts currently scheduled.
+     *
+     * @return The number of pending timeouts.
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.bucket < 0) {
+            return;
+        }
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            buckets[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+        size--;
+    }
+
+    private void run() {
+        long nextTick = System.nanoTime() + tickNanos;
+        while (true) {
+            long sleep = nextTick - System.nanoTime();
+            if (sleep > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleep);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            nextTick += tickNanos;
+
+            // Detach the expired timeouts under the lock, then run them outside it
+            Timeout expired = null;
+            synchronized (this) {
+                tick++;
+                Timeout timeout = buckets[(int) (tick & mask)];
+                while (timeout != null) {
+                    Timeout next = timeout.next;
+                    if (timeout.rounds > 0) {
+                        timeout.rounds--;
+                    } else {
+                        unlink(timeout);
+                        timeout.nextExpired = expired;
+                        expired = timeout;
+                    }
+                    timeout = next;
+                }
+            }
+            while (expired != null) {
+                Timeout timeout = expired;
+                expired = timeout.nextExpired;
+                timeout.nextExpired = null;
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+}
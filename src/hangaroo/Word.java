@@ -1,3 +1,5 @@
+package hangaroo;
+
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -13,6 +15,11 @@ import java.util.ArrayList;
  * track the guessed letters in the word. It provides methods to manipulate and
  * retrieve this information.
  * </p>
+ *
+ * <p>
+ * Instances are immutable. The {@link WordCorpus} keeps its words off the heap and
+ * only creates a {@code Word} when a game draws it.
+ * </p>
  * 
  * <p>
  * The class uses a {@code HashMap} to keep track of each letter in the word and whether
@@ -46,7 +53,7 @@ public class Word {
      * Enumeration representing XML attribute names.
      */
     public enum Attributes {
-        DIFFICULTY("difficulty");
+        DIFFICULTY("difficulty"), WEIGHT("weight");
 
         private final String attribute;
 
@@ -62,35 +69,32 @@ public class Word {
     /**
      * The actual word to be guessed.
      */
-    private String word;
+    private final String word;
 
     /**
      * The description of the word.
      */
-    private String description;
+    private final String description;
 
-    public Word(String word, String description) {
-        this.word = word;
-        this.description = description;
-    }
     /**
-     * Sets a new word for the {@code Word} object.
-     * 
-     * @param word The new word to be set.
+     * The relative weight of the word when words are drawn by weight.
      */
-    public void setWord(String word) {
-        this.word = word;
-    }
+    private final double weight;
 
     /**
-     * Sets a new description for the {@code Word} object.
-     * 
-     * @param description The new description to be set.
+     * The weight of a word whose XML entry has no weight attribute.
      */
-    public void setDescription(String description) {
-        this.description = description;
+    public static final double DEFAULT_WEIGHT = 1.0;
+
+    public Word(String word, String description) {
+        this(word, description, DEFAULT_WEIGHT);
     }
 
+    public Word(String word, String description, double weight) {
+        this.word = word;
+        this.description = description;
+        this.weight = weight;
+    }
     /**
      * Retrieves the current word.
      * 
@@ -109,6 +113,16 @@ public class Word {
         return description;
     }
 
+    /**
+     * Retrieves the relative weight of the word, taken from the optional
+     * {@code weight} attribute of its XML entry.
+     * 
+     * @return The weight, {@code DEFAULT_WEIGHT} if none was given.
+     */
+    public double getWeight() {
+        return weight;
+    }
+
     /**
      * Retrieves the state of the word.
      * 
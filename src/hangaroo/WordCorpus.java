@@ -0,0 +1,260 @@
+package hangaroo;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * The {@code WordCorpus} class holds every word of the game, loaded once per process
+ * and shared by all games.
+ *
+ * <p>
+ * The corpus is immutable: words are addressed by their index within their difficulty
+ * level, ordered by length. Each level also has a {@link WordIndex} for answering
+ * {@link WordQuery} constraints. Because nothing is modified after loading, a single
+ * instance can safely be read from any number of threads. Games do not copy the words;
+ * a {@link WordGenerator} only keeps its own shuffled order of indices into this corpus.
+ * </p>
+ *
+ * <p>
+ * The words and descriptions are kept off the Java heap, as the packed UTF-8 bytes of
+ * the mapped {@link WordPack}. For every level a direct buffer holds an offset table of
+ * two {@code int}s per word: the position of its pack entry and its stable ID. A
+ * {@link Word} is only decoded when {@link #getWord(Difficulty, int)} is called, which
+ * happens for the words a stage actually uses, so the heap and the work of the garbage
+ * collector do not grow with the size of the dictionary. The length, letters and weight
+ * of a word are read straight from the pack for building indexes and weights.
+ * </p>
+ *
+ * <p>
+ * The corpus is loaded lazily on first use through {@link WordPack#load()}.
+ * </p>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+final class WordCorpus {
+
+    /**
+     * Lazily initialized holder of the process-wide corpus.
+     */
+    private static final class Holder {
+        static final WordCorpus INSTANCE = new WordCorpus(WordPack.load());
+    }
+
+    private static final int ENTRY = 0;
+    private static final int ID = 1;
+    private static final int SLOT_INTS = 2;
+
+    private final ByteBuffer pack;
+    private final IntBuffer[] slots;
+    private final WordIndex[] indexes;
+    private final WordPack.LoadReport loadReport;
+
+    /**
+     * Builds the corpus of a loaded pack.
+     *
+     * @param contents The pack and the report of its load.
+     */
+    WordCorpus(WordPack.Contents contents) {
+        pack = contents.pack();
+        slots = new IntBuffer[Difficulty.values().length];
+        indexes = new WordIndex[Difficulty.values().length];
+        for (Difficulty difficulty : Difficulty.values()) {
+            slots[difficulty.ordinal()] = buildSlots(difficulty);
+            indexes[difficulty.ordinal()] = new WordIndex(this, difficulty);
+        }
+        loadReport = contents.report();
+    }
+
+    /**
+     * Builds the offset table of a difficulty level. The entries are ordered by length
+     * with a counting sort, which is stable, so ties keep their file order and every
+     * length range is contiguous. A word longer than a stage can hold, which only a pack
+     * compiled by an older version has, is left out with a warning.
+     */
+    private IntBuffer buildSlots(Difficulty difficulty) {
+        int count = WordPack.count(pack, difficulty);
+        int first = WordPack.firstEntry(pack, difficulty);
+        int[] lengthStart = new int[Stage.MAX_WORD_LENGTH + 2];
+        int kept = 0;
+        for (int i = 0, entry = first; i < count; i++, entry = WordPack.nextEntry(pack, entry)) {
+            int length = charLength(entry);
+            if (length > Stage.MAX_WORD_LENGTH) {
+                System.err.println("Skipping a word of the word pack longer than " + Stage.MAX_WORD_LENGTH
+                        + " characters: " + WordPack.readWord(pack, entry).getWord());
+                continue;
+            }
+            lengthStart[length + 1]++;
+            kept++;
+        }
+        for (int length = 1; length < lengthStart.length; length++) {
+            lengthStart[length] += lengthStart[length - 1];
+        }
+
+        IntBuffer table = ByteBuffer.allocateDirect(kept * SLOT_INTS * Integer.BYTES)
+                .order(ByteOrder.nativeOrder()).asIntBuffer();
+        for (int i = 0, entry = first; i < count; i++, entry = WordPack.nextEntry(pack, entry)) {
+            int length = charLength(entry);
+            if (length > Stage.MAX_WORD_LENGTH) {
+                continue;
+            }
+            int slot = lengthStart[length]++ * SLOT_INTS;
+            table.put(slot + ENTRY, entry);
+            table.put(slot + ID, WordPack.id(pack, entry));
+        }
+        return table;
+    }
+
+    /**
+     * Retrieves the shared corpus, loading it on first use.
+     *
+     * @return The process-wide corpus.
+     */
+    static WordCorpus get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Retrieves the number of words available for a difficulty level.
+     *
+     * @param difficulty The difficulty level.
+     * @return The number of words of that difficulty.
+     */
+    int size(Difficulty difficulty) {
+        return slots[difficulty.ordinal()].capacity() / SLOT_INTS;
+    }
+
+    /**
+     * Decodes a word by its index within a difficulty level. Every call returns a new
+     * {@code Word}; callers keep it for as long as they need it.
+     *
+     * @param difficulty The difficulty level.
+     * @param index      The index of the word, from 0 to {@code size(difficulty) - 1}.
+     * @return The word at that index.
+     */
+    Word getWord(Difficulty difficulty, int index) {
+        return WordPack.readWord(pack, entry(difficulty, index));
+    }
+
+    /**
+     * Retrieves the length of a word, in characters, without decoding it.
+     *
+     * @param difficulty The difficulty level.
+     * @param index      The index of the word within that level.
+     * @return The number of characters of the word.
+     */
+    int getLength(Difficulty difficulty, int index) {
+        return charLength(entry(difficulty, index));
+    }
+
+    /**
+     * Retrieves the mask of the letters of a word without decoding it, in the form of
+     * {@link WordQuery#letterMask(CharSequence)}.
+     *
+     * @param difficulty The difficulty level.
+     * @param index      The index of the word within that level.
+     * @return The mask of the letters the word contains.
+     */
+    int getLetters(Difficulty difficulty, int index) {
+        int entry = entry(difficulty, index);
+        int start = WordPack.nameStart(entry);
+        int mask = 0;
+        for (int i = start; i < start + WordPack.nameLength(pack, entry); i++) {
+            int letterIndex = letterIndex(pack.get(i));
+            if (letterIndex >= 0) {
+                mask |= 1 << letterIndex;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Counts the occurrences of each letter in a word without decoding it.
+     *
+     * @param difficulty The difficulty level.
+     * @param index      The index of the word within that level.
+     * @param counts     An array of 26 counts, where index n stands for 'A' + n, that
+     *                   the occurrences are added to.
+     * @return The number of letters in the word.
+     */
+    int countLetters(Difficulty difficulty, int index, int[] counts) {
+        int entry = entry(difficulty, index);
+        int start = WordPack.nameStart(entry);
+        int letters = 0;
+        for (int i = start; i < start + WordPack.nameLength(pack, entry); i++) {
+            int letterIndex = letterIndex(pack.get(i));
+            if (letterIndex >= 0) {
+                counts[letterIndex]++;
+                letters++;
+            }
+        }
+        return letters;
+    }
+
+    /**
+     * Retrieves the base weight of a word without decoding it.
+     *
+     * @param difficulty The difficulty level.
+     * @param index      The index of the word within that level.
+     * @return The weight given to the word in its word file.
+     */
+    double getWeight(Difficulty difficulty, int index) {
+        return WordPack.weight(pack, entry(difficulty, index));
+    }
+
+    /**
+     * Retrieves the stable ID of a word. The ID comes from the append-only
+     * {@link WordIds} table, so it does not change when other words are added to or
+     * removed from the word files, and the words of a level have IDs close together.
+     *
+     * @param difficulty The difficulty level.
+     * @param index      The index of the word within that level.
+     * @return The stable ID of the word.
+     */
+    int getId(Difficulty difficulty, int index) {
+        return slots[difficulty.ordinal()].get(index * SLOT_INTS + ID);
+    }
+
+    private int entry(Difficulty difficulty, int index) {
+        return slots[difficulty.ordinal()].get(index * SLOT_INTS + ENTRY);
+    }
+
+    private int charLength(int entry) {
+        int start = WordPack.nameStart(entry);
+        int length = 0;
+        for (int i = start; i < start + WordPack.nameLength(pack, entry); i++) {
+            // Count every byte except UTF-8 continuation bytes, and two for a character
+            // outside the BMP, so the length matches String.length()
+            int b = pack.get(i) & 0xFF;
+            if ((b & 0xC0) != 0x80) {
+                length += b >= 0xF0 ? 2 : 1;
+            }
+        }
+        return length;
+    }
+
+    private static int letterIndex(byte b) {
+        int letterIndex = (b & 0xDF) - 'A';
+        return (b & 0x80) == 0 && letterIndex >= 0 && letterIndex < 26 ? letterIndex : -1;
+    }
+
+    /**
+     * Retrieves the length and letter index of a difficulty level.
+     *
+     * @param difficulty The difficulty level.
+     * @return The index of that difficulty's words.
+     */
+    WordIndex getIndex(Difficulty difficulty) {
+        return indexes[difficulty.ordinal()];
+    }
+
+    /**
+     * Retrieves the report of how the corpus was loaded.
+     *
+     * @return The time and allocation spent loading the corpus.
+     */
+    WordPack.LoadReport getLoadReport() {
+        return loadReport;
+    }
+}
@@ -0,0 +1,101 @@
+package hangaroo;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The {@code WordDeck} class deals word indices in a shuffled order and reshuffles
+ * itself in place whenever it runs out, so it never runs dry.
+ *
+ * <p>
+ * Each pass through the deck is an epoch. When an epoch ends, the deck is shuffled
+ * again in its own {@code int} array for the next epoch. A no-repeat window keeps the
+ * last {@code window} words of an epoch out of the first {@code window} draws of the
+ * next, so a word is never dealt twice within that many draws across the seam. The
+ * window is capped at half the deck.
+ * </p>
+ *
+ * <p>
+ * Drawing is allocation-free and constant time, apart from the O(n) reshuffle once per
+ * epoch.
+ * </p>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+final class WordDeck {
+
+    private final int[] order;
+    private final int window;
+    private final RandomGenerator random;
+    private int next;
+    private int epoch;
+
+    /**
+     * Creates a shuffled deck of the indices {@code 0} to {@code size - 1}.
+     *
+     * @param size           The number of words in the deck.
+     * @param noRepeatWindow How many draws must pass before a word can come back
+     *                       across an epoch boundary.
+     * @param random         The random generator used to shuffle the deck.
+     */
+    WordDeck(int size, int noRepeatWindow, RandomGenerator random) {
+        this.order = new int[size];
+        this.window = Math.max(0, Math.min(noRepeatWindow, size / 2));
+        this.random = random;
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        shuffle(0, size);
+    }
+
+    /**
+     * Deals the next word index, starting a new epoch first if the deck is used up.
+     *
+     * @return The next word index, or -1 if the deck is empty.
+     */
+    int draw() {
+        if (order.length == 0) {
+            return -1;
+        }
+        if (next == order.length) {
+            reshuffle();
+        }
+        return order[next++];
+    }
+
+    /**
+     * Retrieves the number of times the deck has been reshuffled.
+     *
+     * @return The current epoch, starting at 0.
+     */
+    int getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Retrieves the number of words in the deck.
+     *
+     * @return The size of the deck.
+     */
+    int size() {
+        return order.length;
+    }
+
+    private void reshuffle() {
+        // The last window words of the epoch sit at the end; shuffle the others to the front
+        shuffle(0, order.length - window);
+        // then spread the recent ones over every position after the first window
+        shuffle(window, order.length);
+        next = 0;
+        epoch++;
+    }
+
+    private void shuffle(int from, int to) { // Fisher-Yates over order[from, to)
+        for (int i = to - 1; i > from; i--) {
+            int j = from + random.nextInt(i - from + 1);
+            int temp = order[i];
+            order[i] = order[j];
+            order[j] = temp;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package hangaroo;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * The {@code WordGenerator} class is responsible for generating random words from XML files
+ * based on the difficulty level of the game. It reads words from separate files for
+ * easy, medium, and hard difficulty levels and provides methods to generate lists
+ * of words for different game modes.
+ * 
+ * The XML file structure is assumed to have the following format:
+ * <pre> {@code
+ * <words>
+ *  <word difficulty="easy">
+ *      <name>ExampleWord</name>
+ *      <description>Example description for the word.</description>
+ *  </word>
+ *  //<!-- Additional word entries -->
+ * </words>
+ * }</pre>
+ * 
+ * The class includes constants for file paths.
+ * Each generator is a cheap per-game deck: the words themselves live in the
+ * shared {@link WordCorpus}, and the generator only keeps a {@link WordDeck}
+ * of word indices for each difficulty level.
+ * 
+ * @author J.R. Sabater
+ * @version 1.0
+ */
+public class WordGenerator {
+
+    /**
+     * Enumeration representing different file paths for each difficulty level.
+     */
+    public static enum FilePath {
+        EASY_PATH("BootlegHangaroo/AppData/Words/Easy.xml"),
+        MEDIUM_PATH("BootlegHangaroo/AppData/Words/Medium.xml"),
+        HARD_PATH("BootlegHangaroo/AppData/Words/Hard.xml");
+
+        private String path;
+
+        /**
+         * Constructs a FilePath with the specified path.
+         * 
+         * @param path The file path for the difficulty level.
+         */
+        FilePath(String path) {
+            this.path = path;
+        }
+
+        /**
+         * Gets the file path for the difficulty level.
+         * 
+         * @return The file path for the difficulty level.
+         */
+        public String getPath() {
+            return path;
+        }
+    }
+
+
+    /**
+     * The default number of draws before a word may repeat across a reshuffle,
+     * overridable with {@code -Dhangaroo.noRepeatWindow}.
+     */
+    public static final int DEFAULT_NO_REPEAT_WINDOW = Integer.getInteger("hangaroo.noRepeatWindow", 10);
+
+    private final WordCorpus corpus;
+    private final WordDeck[] decks;
+    private final long[][] seen;
+    private final int[] lastIndex;
+    private final RandomGenerator random;
+    private SeenWords history;
+
+    /**
+     * Constructor for WordGenerator class. Creates a new deck over the shared
+     * {@link WordCorpus}, with its own shuffled order of words for each
+     * difficulty level. The words themselves are not copied.
+     */
+    public WordGenerator() {
+        this(WordCorpus.get(), ThreadLocalRandom.current());
+    }
+
+    /**
+     * Creates a new deck with its own shuffled order over the given corpus.
+     * Two decks created with identically seeded random generators draw the
+     * same words in the same order.
+     *
+     * @param corpus The corpus to draw words from.
+     * @param random The random generator used to shuffle the deck.
+     */
+    WordGenerator(WordCorpus corpus, RandomGenerator random) {
+        this(corpus, random, DEFAULT_NO_REPEAT_WINDOW);
+    }
+
+    /**
+     * Creates a new deck with its own shuffled order over the given corpus.
+     *
+     * @param corpus         The corpus to draw words from.
+     * @param random         The random generator used to shuffle the deck.
+     * @param noRepeatWindow How many draws must pass before a word can repeat
+     *                       when a difficulty's deck is reshuffled.
+     */
+    WordGenerator(WordCorpus corpus, RandomGenerator random, int noRepeatWindow) {
+        this.corpus = corpus;
+        this.random = random;
+        decks = new WordDeck[Difficulty.values().length];
+        seen = new long[Difficulty.values().length][];
+        lastIndex = new int[Difficulty.values().length];
+        for (Difficulty difficulty : Difficulty.values()) {
+            decks[difficulty.ordinal()] = new WordDeck(corpus.size(difficulty), noRepeatWindow, random);
+            seen[difficulty.ordinal()] = new long[WordIndex.bitsetLength(corpus.size(difficulty))];
+        }
+    }
+
+    /**
+     * Generates a random word based on the specified difficulty level.
+     * Once every word of a difficulty has been drawn, that difficulty's
+     * deck is reshuffled in place, so drawing never runs out.
+     * 
+     * @param difficulty The difficulty level for which to generate the word.
+     * @return A randomly generated word, or {@code null} if there are no
+     *         words of that difficulty at all.
+     */
+    public Word generateWord(Difficulty difficulty){
+        WordDeck deck = decks[difficulty.ordinal()];
+        int index = deck.draw();
+        if (index < 0) {
+            return null;
+        }
+        if (history != null) {
+            // Skip the words the player has seen in earlier games; after a full
+            // pass without an unseen word, the player starts this difficulty afresh
+            for (int draws = 1; history.contains(corpus.getId(difficulty, index)); draws++) {
+                if (draws == deck.size()) {
+                    forgetDifficulty(difficulty);
+                    break;
+                }
+                index = deck.draw();
+            }
+        }
+        markSeen(difficulty, index);
+        return corpus.getWord(difficulty, index);
+    }
+
+    /**
+     * Attaches a player's persistent history, so that words the player saw in
+     * earlier games are skipped and every word dealt is added to it.
+     *
+     * @param history The player's history, or {@code null} to stop tracking.
+     */
+    void setHistory(SeenWords history) {
+        this.history = history;
+    }
+
+    /**
+     * Generates a random word meeting the constraints of a query that this
+     * generator has not dealt before.
+     *
+     * @param query The constraints the word must meet.
+     * @return A matching word, or {@code null} if every matching word has
+     *         already been dealt or none exists.
+     */
+    public Word generateWord(WordQuery query) {
+        Difficulty difficulty = query.getDifficulty();
+        int index = corpus.getIndex(difficulty).find(query, seen[difficulty.ordinal()], random);
+        if (index < 0) {
+            return null;
+        }
+        markSeen(difficulty, index);
+        return corpus.getWord(difficulty, index);
+    }
+
+    /**
+     * Generates a random word of the specified difficulty level, drawn in
+     * proportion to its weight in the shared {@link WordWeights}. Unlike
+     * the deck, weighted draws may repeat words.
+     *
+     * @param difficulty The difficulty level for which to generate the word.
+     * @return A randomly drawn word, or {@code null} if there are no words
+     *         of that difficulty at all.
+     */
+    public Word generateWeightedWord(Difficulty difficulty) {
+        int index = WordWeights.shared().sample(difficulty, random);
+        if (index < 0) {
+            return null;
+        }
+        markSeen(difficulty, index);
+        return corpus.getWord(difficulty, index);
+    }
+
+    /**
+     * Retrieves the corpus index of the word most recently generated for a
+     * difficulty level.
+     *
+     * @param difficulty The difficulty level.
+     * @return The index of the last word dealt for that difficulty.
+     */
+    int getLastIndex(Difficulty difficulty) {
+        return lastIndex[difficulty.ordinal()];
+    }
+
+    private void markSeen(Difficulty difficulty, int index) {
+        seen[difficulty.ordinal()][index >>> 6] |= 1L << index;
+        lastIndex[difficulty.ordinal()] = index;
+        if (history != null) {
+            history.add(corpus.getId(difficulty, index));
+        }
+    }
+
+    private void forgetDifficulty(Difficulty difficulty) {
+        for (int i = 0; i < corpus.size(difficulty); i++) {
+            history.remove(corpus.getId(difficulty, i));
+        }
+    }
+
+    /**
+    public static void main(String[] args) {
+        WordGenerator wg = new WordGenerator();
+        for (int i = 0; i < 10; i++) {
+            System.out.println(wg.generateWord(Difficulty.EASY).getWord());
+        }
+        return;
+    }
+    */
+}
@@ -0,0 +1,179 @@
+package hangaroo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code WordIds} class gives every word of the corpus a stable ID, kept in an
+ * append-only table next to the word files.
+ *
+ * <p>
+ * The ID of a word is the position of its record in the table. A word seen for the
+ * first time is appended with the next ID, and a record is never changed or removed, so
+ * an ID keeps meaning the same word when words are added to or removed from the XML
+ * files. Unlike a hash, the IDs are dense and cannot collide: the words of a word file
+ * get consecutive IDs, so a player's {@link SeenWords} history fills a few containers
+ * instead of spreading one ID per container. A word is identified by its difficulty and
+ * its name with the ASCII letters upper-cased.
+ * </p>
+ *
+ * <p>
+ * The table is shipped with the word files; the game only appends to it. Every
+ * assignment is made while holding an exclusive {@link FileLock} on the table, so
+ * processes compiling the word pack at the same time agree on the IDs. A record torn by
+ * a crash is cut off before new records are appended.
+ * </p>
+ *
+ * <p>
+ * The table is laid out as follows (all integers big-endian):
+ * </p>
+ * <pre>
+ * header  int magic, int version
+ * record  byte difficulty, short nameLength, name bytes (UTF-8)
+ * </pre>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+final class WordIds {
+
+    /**
+     * The path of the table of word IDs.
+     */
+    public static final String IDS_PATH = "BootlegHangaroo/AppData/Words/Words.ids";
+
+    private static final int MAGIC = 0x42485749; // "BHWI"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+
+    private WordIds() {
+    }
+
+    /**
+     * Retrieves the IDs of the given words, appending the words that have none yet to
+     * the table.
+     *
+     * @param table The path of the table.
+     * @param words The words grouped by difficulty.
+     * @return The IDs, indexed by difficulty ordinal and then by position in the list.
+     * @throws IOException If the table cannot be read or appended to.
+     */
+    static int[][] assign(Path table, Map<Difficulty, List<Word>> words) throws IOException {
+        Files.createDirectories(table.toAbsolutePath().getParent());
+        try (FileChannel channel = FileChannel.open(table, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            FileLock lock = channel.lock();
+            try {
+                List<String> keys = new ArrayList<>();
+                long end = read(channel, keys);
+                Map<String, Integer> ids = new HashMap<>(keys.size() * 2);
+                for (int id = 0; id < keys.size(); id++) {
+                    ids.putIfAbsent(keys.get(id), id);
+                }
+                int known = keys.size();
+                int[][] assigned = new int[Difficulty.values().length][];
+                for (Difficulty difficulty : Difficulty.values()) {
+                    List<Word> list = words.get(difficulty);
+                    int[] difficultyIds = new int[list.size()];
+                    for (int i = 0; i < list.size(); i++) {
+                        String key = key(difficulty, list.get(i).getWord());
+                        Integer id = ids.get(key);
+                        if (id == null) {
+                            id = keys.size();
+                            ids.put(key, id);
+                            keys.add(key);
+                        }
+                        difficultyIds[i] = id;
+                    }
+                    assigned[difficulty.ordinal()] = difficultyIds;
+                }
+                if (keys.size() > known || end < channel.size()) {
+                    append(channel, end, keys.subList(known, keys.size()));
+                }
+                return assigned;
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    /**
+     * Reads the keys of the intact records of the table in ID order, writing the header
+     * first if the table is new.
+     *
+     * @return The position just past the last intact record.
+     */
+    private static long read(FileChannel channel, List<String> keys) throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            return HEADER_SIZE;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+            // Read until the buffer is full or the file ends
+        }
+        buffer.flip();
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            // Starting a new table would change the meaning of every saved history
+            throw new IOException("Not a word ID table: " + IDS_PATH);
+        }
+        int valid = buffer.position();
+        while (buffer.remaining() >= Byte.BYTES + Short.BYTES) {
+            int difficulty = buffer.get();
+            int length = Short.toUnsignedInt(buffer.getShort());
+            if (difficulty < 0 || difficulty >= Difficulty.values().length || buffer.remaining() < length) {
+                break;
+            }
+            keys.add(difficulty + ":" + new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8));
+            buffer.position(buffer.position() + length);
+            valid = buffer.position();
+        }
+        return valid;
+    }
+
+    private static void append(FileChannel channel, long end, List<String> keys) throws IOException {
+        channel.truncate(end);
+        List<byte[]> names = new ArrayList<>(keys.size());
+        int size = 0;
+        for (String key : keys) {
+            byte[] name = key.substring(key.indexOf(':') + 1).getBytes(StandardCharsets.UTF_8);
+            names.add(name);
+            size += Byte.BYTES + Short.BYTES + name.length;
+        }
+        ByteBuffer records = ByteBuffer.allocate(size);
+        for (int i = 0; i < keys.size(); i++) {
+            String key = keys.get(i);
+            records.put((byte) Integer.parseInt(key, 0, key.indexOf(':'), 10))
+                    .putShort((short) names.get(i).length).put(names.get(i));
+        }
+        records.flip();
+        long position = end;
+        while (records.hasRemaining()) {
+            position += channel.write(records, position);
+        }
+        channel.force(false);
+    }
+
+    private static String key(Difficulty difficulty, String name) {
+        StringBuilder key = new StringBuilder(name.length() + 2).append(difficulty.ordinal()).append(':');
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            key.append(c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c);
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,122 @@
+package hangaroo;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The {@code WordIndex} class indexes the words of one difficulty level by length and
+ * by the letters they contain, so a {@link WordQuery} is answered with a few bitset
+ * operations instead of a scan.
+ *
+ * <p>
+ * The words of a difficulty are ordered by length in the {@link WordCorpus}, so every
+ * range of lengths is a contiguous range of word indices, found through a table of
+ * where each length starts. For every letter the index keeps a bitset of the words
+ * that contain it. A query combines, 64 words at a time, the length range, the
+ * bitsets of the required letters, the complement of the bitsets of the excluded
+ * letters and the complement of the caller's seen bitset, then picks a random word
+ * among the matches.
+ * </p>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+final class WordIndex {
+
+    private static final int ALPHABET_SIZE = 26;
+
+    private final int size;
+    private final int[] lengthStart;
+    private final long[][] letterBits;
+
+    /**
+     * Builds the index of a difficulty level.
+     *
+     * @param corpus     The corpus, whose words are ordered by length.
+     * @param difficulty The difficulty level to index.
+     */
+    WordIndex(WordCorpus corpus, Difficulty difficulty) {
+        size = corpus.size(difficulty);
+        lengthStart = new int[Stage.MAX_WORD_LENGTH + 2];
+        letterBits = new long[ALPHABET_SIZE][bitsetLength(size)];
+        int[] lengthCount = new int[Stage.MAX_WORD_LENGTH + 2];
+        for (int i = 0; i < size; i++) {
+            lengthCount[Math.min(corpus.getLength(difficulty, i), Stage.MAX_WORD_LENGTH + 1)]++;
+            int letters = corpus.getLetters(difficulty, i);
+            for (; letters != 0; letters &= letters - 1) {
+                letterBits[Integer.numberOfTrailingZeros(letters)][i >>> 6] |= 1L << i;
+            }
+        }
+        for (int length = 1; length < lengthStart.length; length++) {
+            lengthStart[length] = lengthStart[length - 1] + lengthCount[length - 1];
+        }
+    }
+
+    /**
+     * Computes the number of {@code long}s needed for a bitset over the given number of words.
+     *
+     * @param size The number of words.
+     * @return The length of the bitset array.
+     */
+    static int bitsetLength(int size) {
+        return (size + Long.SIZE - 1) >>> 6;
+    }
+
+    /**
+     * Picks a random word matching the query that is not marked in the seen bitset.
+     *
+     * @param query  The constraints the word must meet.
+     * @param seen   A bitset over the word indices of the query's difficulty, or {@code null}.
+     * @param random The random generator used to pick among the matches.
+     * @return The index of the chosen word, or -1 if no word matches.
+     */
+    int find(WordQuery query, long[] seen, RandomGenerator random) {
+        int from = start(query.getMinLength());
+        int to = start(query.getMaxLength() + 1);
+        if (from >= to) {
+            return -1;
+        }
+        int count = 0;
+        for (int w = from >>> 6; w <= (to - 1) >>> 6; w++) {
+            count += Long.bitCount(matches(w, from, to, query, seen));
+        }
+        if (count == 0) {
+            return -1;
+        }
+        int target = random.nextInt(count);
+        for (int w = from >>> 6; ; w++) {
+            long bits = matches(w, from, to, query, seen);
+            int bitCount = Long.bitCount(bits);
+            if (target < bitCount) {
+                for (; target > 0; target--) {
+                    bits &= bits - 1;
+                }
+                return (w << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            target -= bitCount;
+        }
+    }
+
+    private long matches(int w, int from, int to, WordQuery query, long[] seen) {
+        long bits = -1L;
+        if (w == from >>> 6) {
+            bits &= -1L << from;
+        }
+        if (w == (to - 1) >>> 6) {
+            bits &= -1L >>> (Long.SIZE - 1 - ((to - 1) & 63));
+        }
+        for (int letters = query.getRequiredLetters(); letters != 0 && bits != 0; letters &= letters - 1) {
+            bits &= letterBits[Integer.numberOfTrailingZeros(letters)][w];
+        }
+        for (int letters = query.getExcludedLetters(); letters != 0 && bits != 0; letters &= letters - 1) {
+            bits &= ~letterBits[Integer.numberOfTrailingZeros(letters)][w];
+        }
+        if (seen != null) {
+            bits &= ~seen[w];
+        }
+        return bits;
+    }
+
+    private int start(int length) {
+        return length >= lengthStart.length ? size : lengthStart[Math.max(length, 0)];
+    }
+}
@@ -0,0 +1,472 @@
+package hangaroo;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+/**
+ * The {@code WordPack} class compiles the XML word files into a compact binary pack
+ * and maps that pack read-only, so the words are read straight from the mapping
+ * instead of being copied onto the Java heap.
+ *
+ * <p>
+ * The pack is laid out as follows (all integers big-endian):
+ * </p>
+ * <pre>
+ * header       int magic, int version, long sourceStamp
+ * offset table for each {@code Difficulty}: int offset, int count
+ * body         for each word: short nameLength, name bytes,
+ *                             short descriptionLength, description bytes,
+ *                             float weight, int id
+ * </pre>
+ *
+ * <p>
+ * Names and descriptions are stored as UTF-8. The source stamp is derived from the
+ * size and modification time of every XML word file, so a pack whose stamp no longer
+ * matches is considered stale and the XML files are parsed (and the pack recompiled)
+ * instead. The id of an entry is the word's stable ID from {@link WordIds}, assigned
+ * when the pack is compiled.
+ * </p>
+ *
+ * <p>
+ * The pack can be compiled ahead of time by running this class:
+ * </p>
+ * <pre> {@code
+ * java -cp out hangaroo.WordPack
+ * }</pre>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+final class WordPack {
+
+    /**
+     * The path of the compiled word pack.
+     */
+    public static final String PACK_PATH = "BootlegHangaroo/AppData/Words/Words.pack";
+
+    private static final int MAGIC = 0x42485750; // "BHWP"
+    private static final int VERSION = 3;
+    private static final int HEADER_SIZE = Integer.BYTES * 2 + Long.BYTES;
+    private static final int OFFSET_TABLE_SIZE = Difficulty.values().length * Integer.BYTES * 2;
+
+    /**
+     * Describes how a corpus was loaded: where it came from, how many words it held,
+     * how long it took and how many bytes the loading thread allocated.
+     */
+    record LoadReport(String source, int words, long nanos, long allocatedBytes) {
+        @Override
+        public String toString() {
+            return String.format("Loaded %d words from %s in %.3f ms (%d KiB allocated)",
+                    words, source, nanos / 1_000_000.0, allocatedBytes / 1024);
+        }
+    }
+
+    /**
+     * A loaded pack, held off-heap, along with the report of its load.
+     */
+    record Contents(ByteBuffer pack, LoadReport report) {
+    }
+
+    private WordPack() {
+    }
+
+    /**
+     * Loads the compiled pack, falling back to the XML word files when the pack is
+     * missing, stale or unreadable. When the XML files are used, the pack is recompiled
+     * so the next load can be mapped.
+     *
+     * <p>
+     * The returned buffer is either a read-only mapping of the pack file or, when the
+     * pack cannot be written, a direct buffer holding the same bytes. Either way the
+     * words stay outside the Java heap; they are read through the static accessors of
+     * this class.
+     * </p>
+     *
+     * @return The loaded pack and a report of the load.
+     * @throws UncheckedIOException If the pack has to be compiled and a word file is
+     *                              missing, malformed or leaves a difficulty without words.
+     */
+    static Contents load() {
+        long startNanos = System.nanoTime();
+        long startBytes = allocatedBytes();
+        Path pack = Path.of(PACK_PATH);
+        long stamp = sourceStamp();
+
+        ByteBuffer buffer = null;
+        String source = PACK_PATH;
+        try {
+            if (Files.isRegularFile(pack)) {
+                buffer = mapPack(pack, stamp);
+            }
+        } catch (IOException | RuntimeException e) {
+            buffer = null;
+        }
+        if (buffer == null) {
+            source = "XML";
+            ByteBuffer encoded;
+            try {
+                // A broken word file fails the load; it is never cached as an up-to-date pack
+                Map<Difficulty, List<Word>> words = readXml();
+                encoded = encodePack(words, stamp, WordIds.assign(Path.of(WordIds.IDS_PATH), words));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            try {
+                writePack(pack, encoded.duplicate());
+                buffer = mapPack(pack, stamp);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            if (buffer == null) {
+                buffer = ByteBuffer.allocateDirect(encoded.remaining()).put(encoded).flip();
+            }
+        }
+
+        int count = 0;
+        for (Difficulty difficulty : Difficulty.values()) {
+            count += count(buffer, difficulty);
+        }
+        LoadReport report = new LoadReport(source, count, System.nanoTime() - startNanos,
+                allocatedBytes() - startBytes);
+        if (Boolean.getBoolean("hangaroo.loadReport")) {
+            System.err.println(report);
+        }
+        return new Contents(buffer, report);
+    }
+
+    /**
+     * Compiles the XML word files into the binary pack.
+     *
+     * @throws IOException If the pack cannot be written.
+     */
+    static void compile() throws IOException {
+        Map<Difficulty, List<Word>> words = readXml();
+        writePack(Path.of(PACK_PATH), encodePack(words, sourceStamp(), WordIds.assign(Path.of(WordIds.IDS_PATH), words)));
+    }
+
+    /**
+     * Computes a stamp of the XML word files from their sizes and modification times.
+     *
+     * @return The stamp of the current XML word files.
+     */
+    static long sourceStamp() {
+        long stamp = 17;
+        for (WordGenerator.FilePath filePath : WordGenerator.FilePath.values()) {
+            File file = new File(filePath.getPath());
+            stamp = stamp * 31 + file.length();
+            stamp = stamp * 31 + file.lastModified();
+        }
+        return stamp;
+    }
+
+    /**
+     * Parses every XML word file and groups the words by their difficulty attribute.
+     *
+     * @return The parsed words grouped by difficulty.
+     * @throws IOException If a word file is missing or malformed, or no file has words of
+     *                     some difficulty.
+     */
+    static Map<Difficulty, List<Word>> readXml() throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (WordGenerator.FilePath filePath : WordGenerator.FilePath.values()) {
+            files.add(Path.of(filePath.getPath()));
+        }
+        return readXml(files);
+    }
+
+    /**
+     * Parses the given XML word files and groups the words by their difficulty attribute.
+     * A word longer than a stage can hold ({@link Stage#MAX_WORD_LENGTH} characters) is
+     * left out with a warning.
+     *
+     * @param files The word files to read.
+     * @return The parsed words grouped by difficulty.
+     * @throws IOException If a word file is missing or malformed, or no file has words of
+     *                     some difficulty.
+     */
+    static Map<Difficulty, List<Word>> readXml(List<Path> files) throws IOException {
+        Map<Difficulty, List<Word>> words = emptyWords();
+        DocumentBuilder dBuilder;
+        try {
+            dBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+        for (Path file : files) {
+            try {
+                Document doc = dBuilder.parse(file.toFile());
+                doc.getDocumentElement().normalize();
+
+                NodeList nList = doc.getElementsByTagName(Word.TagName.WORD.getTagName());
+                for (int i = 0; i < nList.getLength(); i++) {
+                    Element eElement = (Element) nList.item(i);
+
+                    String wordDifficulty = eElement.getAttribute(Word.Attributes.DIFFICULTY.getAttribute());
+                    String name = eElement.getElementsByTagName("name").item(0).getTextContent();
+                    String description = eElement.getElementsByTagName(Word.TagName.DESCRIPTION.getTagName())
+                            .item(0).getTextContent();
+                    String weightAttribute = eElement.getAttribute(Word.Attributes.WEIGHT.getAttribute());
+                    double weight = weightAttribute.isBlank() ? Word.DEFAULT_WEIGHT : Double.parseDouble(weightAttribute);
+                    if (name.length() > Stage.MAX_WORD_LENGTH) {
+                        System.err.println("Skipping a word of " + file + " longer than " + Stage.MAX_WORD_LENGTH
+                                + " characters: " + name);
+                        continue;
+                    }
+
+                    switch (wordDifficulty.toLowerCase()) {
+                        case "easy" -> words.get(Difficulty.EASY).add(new Word(name, description, weight));
+                        case "medium" -> words.get(Difficulty.MEDIUM).add(new Word(name, description, weight));
+                        case "hard" -> words.get(Difficulty.HARD).add(new Word(name, description, weight));
+                        default -> {
+                        }
+                    }
+                }
+            } catch (SAXException | RuntimeException e) {
+                // A word without a name or with a bad weight fails like malformed XML
+                throw new IOException("Cannot read word file " + file, e);
+            }
+        }
+        for (Difficulty difficulty : Difficulty.values()) {
+            if (words.get(difficulty).isEmpty()) {
+                throw new IOException("The word files have no " + difficulty.name().toLowerCase() + " words");
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Retrieves the number of words of a difficulty level in a pack.
+     *
+     * @param pack       The pack.
+     * @param difficulty The difficulty level.
+     * @return The number of entries of that difficulty.
+     */
+    static int count(ByteBuffer pack, Difficulty difficulty) {
+        return pack.getInt(HEADER_SIZE + difficulty.ordinal() * Integer.BYTES * 2 + Integer.BYTES);
+    }
+
+    /**
+     * Retrieves the position of the first entry of a difficulty level in a pack.
+     *
+     * @param pack       The pack.
+     * @param difficulty The difficulty level.
+     * @return The position of the first entry; the others follow it back to back.
+     */
+    static int firstEntry(ByteBuffer pack, Difficulty difficulty) {
+        return pack.getInt(HEADER_SIZE + difficulty.ordinal() * Integer.BYTES * 2);
+    }
+
+    /**
+     * Retrieves the position of the entry following the given one.
+     *
+     * @param pack  The pack.
+     * @param entry The position of an entry.
+     * @return The position of the next entry.
+     */
+    static int nextEntry(ByteBuffer pack, int entry) {
+        return descriptionStart(pack, entry) + descriptionLength(pack, entry) + Float.BYTES + Integer.BYTES;
+    }
+
+    /**
+     * Retrieves the position of the UTF-8 name bytes of an entry.
+     *
+     * @param entry The position of an entry.
+     * @return The position of its first name byte.
+     */
+    static int nameStart(int entry) {
+        return entry + Short.BYTES;
+    }
+
+    /**
+     * Retrieves the number of UTF-8 name bytes of an entry.
+     *
+     * @param pack  The pack.
+     * @param entry The position of an entry.
+     * @return The length of its name in bytes.
+     */
+    static int nameLength(ByteBuffer pack, int entry) {
+        return Short.toUnsignedInt(pack.getShort(entry));
+    }
+
+    /**
+     * Retrieves the weight of an entry.
+     *
+     * @param pack  The pack.
+     * @param entry The position of an entry.
+     * @return Its weight.
+     */
+    static double weight(ByteBuffer pack, int entry) {
+        return pack.getFloat(descriptionStart(pack, entry) + descriptionLength(pack, entry));
+    }
+
+    /**
+     * Retrieves the stable ID of an entry.
+     *
+     * @param pack  The pack.
+     * @param entry The position of an entry.
+     * @return The ID of its word in the {@link WordIds} table.
+     */
+    static int id(ByteBuffer pack, int entry) {
+        return pack.getInt(descriptionStart(pack, entry) + descriptionLength(pack, entry) + Float.BYTES);
+    }
+
+    /**
+     * Decodes an entry into a new {@link Word}.
+     *
+     * @param pack  The pack.
+     * @param entry The position of an entry.
+     * @return The word of that entry.
+     */
+    static Word readWord(ByteBuffer pack, int entry) {
+        String name = readString(pack, nameStart(entry), nameLength(pack, entry));
+        String description = readString(pack, descriptionStart(pack, entry), descriptionLength(pack, entry));
+        return new Word(name, description, weight(pack, entry));
+    }
+
+    private static int descriptionStart(ByteBuffer pack, int entry) {
+        return nameStart(entry) + nameLength(pack, entry) + Short.BYTES;
+    }
+
+    private static int descriptionLength(ByteBuffer pack, int entry) {
+        return Short.toUnsignedInt(pack.getShort(nameStart(entry) + nameLength(pack, entry)));
+    }
+
+    private static ByteBuffer mapPack(Path pack, long stamp) throws IOException {
+        try (FileChannel channel = FileChannel.open(pack, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            if (buffer.remaining() < HEADER_SIZE + OFFSET_TABLE_SIZE
+                    || buffer.getInt(0) != MAGIC
+                    || buffer.getInt(Integer.BYTES) != VERSION
+                    || buffer.getLong(Integer.BYTES * 2) != stamp) {
+                return null;
+            }
+            for (Difficulty difficulty : Difficulty.values()) {
+                if (count(buffer, difficulty) == 0) {
+                    // Compiled from broken word files by an older version; read the XML again
+                    return null;
+                }
+            }
+            return buffer;
+        }
+    }
+
+    /**
+     * Encodes words into a pack.
+     *
+     * @param words The words grouped by difficulty.
+     * @param stamp The stamp of the word files the words were read from.
+     * @param ids   The stable ID of every word, in the same order.
+     * @return The pack, ready to be written or read.
+     */
+    static ByteBuffer encodePack(Map<Difficulty, List<Word>> words, long stamp, int[][] ids) {
+        byte[][][] encoded = new byte[Difficulty.values().length][][];
+        int size = HEADER_SIZE + OFFSET_TABLE_SIZE;
+        for (Difficulty difficulty : Difficulty.values()) {
+            List<Word> list = words.get(difficulty);
+            byte[][] entries = new byte[list.size() * 2][];
+            for (int i = 0; i < list.size(); i++) {
+                entries[i * 2] = encode(list.get(i).getWord());
+                entries[i * 2 + 1] = encode(list.get(i).getDescription());
+                size += Short.BYTES * 2 + entries[i * 2].length + entries[i * 2 + 1].length + Float.BYTES
+                        + Integer.BYTES;
+            }
+            encoded[difficulty.ordinal()] = entries;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(stamp);
+        int offset = HEADER_SIZE + OFFSET_TABLE_SIZE;
+        for (Difficulty difficulty : Difficulty.values()) {
+            byte[][] entries = encoded[difficulty.ordinal()];
+            buffer.putInt(offset).putInt(entries.length / 2);
+            for (int i = 0; i < entries.length; i += 2) {
+                offset += Short.BYTES * 2 + entries[i].length + entries[i + 1].length + Float.BYTES + Integer.BYTES;
+            }
+        }
+        for (Difficulty difficulty : Difficulty.values()) {
+            byte[][] entries = encoded[difficulty.ordinal()];
+            List<Word> list = words.get(difficulty);
+            for (int i = 0; i < entries.length; i += 2) {
+                buffer.putShort((short) entries[i].length).put(entries[i]);
+                buffer.putShort((short) entries[i + 1].length).put(entries[i + 1]);
+                buffer.putFloat((float) list.get(i / 2).getWeight());
+                buffer.putInt(ids[difficulty.ordinal()][i / 2]);
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static void writePack(Path pack, ByteBuffer buffer) throws IOException {
+        // Write to a temporary file first so a reader never maps a half-written pack
+        Path temp = pack.resolveSibling(pack.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, pack, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+
+    private static byte[] encode(String string) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("Entry too long for word pack: " + string.substring(0, 32));
+        }
+        return bytes;
+    }
+
+    private static String readString(ByteBuffer pack, int start, int length) {
+        byte[] bytes = new byte[length];
+        pack.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Map<Difficulty, List<Word>> emptyWords() {
+        Map<Difficulty, List<Word>> words = new EnumMap<>(Difficulty.class);
+        for (Difficulty difficulty : Difficulty.values()) {
+            words.put(difficulty, new ArrayList<>());
+        }
+        return words;
+    }
+
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadBean
+                && threadBean.isThreadAllocatedMemorySupported()) {
+            return threadBean.getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+
+    public static void main(String[] args) throws IOException {
+        compile();
+        System.out.println(load().report());
+    }
+}
@@ -0,0 +1,137 @@
+package hangaroo;
+
+/**
+ * The {@code WordQuery} class describes the constraints a word must meet: its
+ * difficulty, a range of lengths, letters it must contain and letters it must not.
+ *
+ * <p>
+ * Queries are answered by the {@link WordIndex} of the corpus through
+ * {@link WordGenerator#generateWord(WordQuery)}, which also skips the words the
+ * game has already dealt. A query is mutable and can be reused between draws.
+ * </p>
+ *
+ * <p>
+ * Example usage:
+ * </p>
+ * <pre>
+ * {@code
+ * // A HARD word of 7 to 9 letters without Q or Z
+ * WordQuery query = new WordQuery(Difficulty.HARD).lengthBetween(7, 9).excluding("QZ");
+ * Word word = wordGenerator.generateWord(query);
+ * }
+ * </pre>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+public class WordQuery {
+
+    private Difficulty difficulty;
+    private int minLength = 0;
+    private int maxLength = Stage.MAX_WORD_LENGTH;
+    private int requiredLetters;
+    private int excludedLetters;
+
+    /**
+     * Creates a query matching every word of a difficulty level.
+     *
+     * @param difficulty The difficulty level of the words.
+     */
+    public WordQuery(Difficulty difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    /**
+     * Restricts the difficulty level of the words.
+     *
+     * @param difficulty The difficulty level.
+     * @return This query.
+     */
+    public WordQuery difficulty(Difficulty difficulty) {
+        this.difficulty = difficulty;
+        return this;
+    }
+
+    /**
+     * Restricts the length of the words, both bounds inclusive.
+     *
+     * @param minLength The shortest allowed length.
+     * @param maxLength The longest allowed length.
+     * @return This query.
+     */
+    public WordQuery lengthBetween(int minLength, int maxLength) {
+        this.minLength = Math.max(minLength, 0);
+        this.maxLength = Math.min(maxLength, Stage.MAX_WORD_LENGTH);
+        return this;
+    }
+
+    /**
+     * Requires the words to contain every given letter.
+     *
+     * @param letters The letters, in any case.
+     * @return This query.
+     */
+    public WordQuery containing(String letters) {
+        requiredLetters |= letterMask(letters);
+        return this;
+    }
+
+    /**
+     * Requires the words to contain none of the given letters.
+     *
+     * @param letters The letters, in any case.
+     * @return This query.
+     */
+    public WordQuery excluding(String letters) {
+        excludedLetters |= letterMask(letters);
+        return this;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public int getMinLength() {
+        return minLength;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Retrieves the required letters as a mask where bit n stands for 'A' + n.
+     *
+     * @return The mask of required letters.
+     */
+    public int getRequiredLetters() {
+        return requiredLetters;
+    }
+
+    /**
+     * Retrieves the excluded letters as a mask where bit n stands for 'A' + n.
+     *
+     * @return The mask of excluded letters.
+     */
+    public int getExcludedLetters() {
+        return excludedLetters;
+    }
+
+    /**
+     * Computes the mask of the letters in a string, where bit n stands for 'A' + n.
+     * Characters other than letters are ignored.
+     *
+     * @param letters The string.
+     * @return The mask of its letters.
+     */
+    static int letterMask(CharSequence letters) {
+        int mask = 0;
+        for (int i = 0; i < letters.length(); i++) {
+            int letterIndex = Character.toUpperCase(letters.charAt(i)) - 'A';
+            if (letterIndex >= 0 && letterIndex < 26) {
+                mask |= 1 << letterIndex;
+            }
+        }
+        return mask;
+    }
+}
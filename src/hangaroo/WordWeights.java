@@ -0,0 +1,206 @@
+package hangaroo;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.random.RandomGenerator;
+
+/**
+ * The {@code WordWeights} class draws words from the {@link WordCorpus} in proportion
+ * to configurable weights, using one {@link AliasTable} per difficulty level.
+ *
+ * <p>
+ * The weight of a word is the product of:
+ * </p>
+ * <ul>
+ * <li>its {@code weight} attribute from the XML word file (1 if absent),</li>
+ * <li>its length raised to {@code lengthExponent},</li>
+ * <li>the rarity of its letters (the mean information content of each letter's
+ * frequency in English) raised to {@code rarityExponent},</li>
+ * <li>its loss rate in past stages, {@code 1 - winRate}, raised to
+ * {@code winRateExponent}. Positive exponents favour words players tend to fail.</li>
+ * </ul>
+ *
+ * <p>
+ * Every draw is O(1) whatever the size of the corpus. When the weights change, because
+ * the factors are reconfigured or stage outcomes are recorded, the tables are rebuilt
+ * on a background thread and swapped in atomically; game threads keep drawing from
+ * the previous tables in the meantime. Bursts of changes are coalesced into one
+ * rebuild.
+ * </p>
+ *
+ * <p>
+ * The shared instance reads its exponents from the {@code hangaroo.weight.length},
+ * {@code hangaroo.weight.rarity} and {@code hangaroo.weight.winRate} system
+ * properties, all 0 by default.
+ * </p>
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+final class WordWeights {
+
+    /**
+     * The exponents applied to each weighting factor. An exponent of 0 disables a factor.
+     */
+    record Factors(double lengthExponent, double rarityExponent, double winRateExponent) {
+
+        /**
+         * Reads the exponents from the system properties.
+         *
+         * @return The configured factors.
+         */
+        static Factors fromSystemProperties() {
+            return new Factors(
+                    Double.parseDouble(System.getProperty("hangaroo.weight.length", "0")),
+                    Double.parseDouble(System.getProperty("hangaroo.weight.rarity", "0")),
+                    Double.parseDouble(System.getProperty("hangaroo.weight.winRate", "0")));
+        }
+    }
+
+    /**
+     * Relative frequency of each letter 'A' to 'Z' in English text, in percent.
+     */
+    private static final double[] LETTER_FREQUENCY = {
+            8.2, 1.5, 2.8, 4.3, 12.7, 2.2, 2.0, 6.1, 7.0, 0.15, 0.77, 4.0, 2.4,
+            6.7, 7.5, 1.9, 0.095, 6.0, 6.3, 9.1, 2.8, 0.98, 2.4, 0.15, 2.0, 0.074
+    };
+
+    private static final class Holder {
+        static final WordWeights INSTANCE = new WordWeights(WordCorpus.get(), Factors.fromSystemProperties());
+    }
+
+    private final WordCorpus corpus;
+    private final AtomicIntegerArray[] plays;
+    private final AtomicIntegerArray[] wins;
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "word-weights");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Factors factors;
+    private volatile AliasTable[] tables;
+
+    /**
+     * Creates the weights of a corpus and builds their tables.
+     *
+     * @param corpus  The corpus to draw from.
+     * @param factors The exponents of the weighting factors.
+     */
+    WordWeights(WordCorpus corpus, Factors factors) {
+        this.corpus = corpus;
+        this.factors = factors;
+        plays = new AtomicIntegerArray[Difficulty.values().length];
+        wins = new AtomicIntegerArray[Difficulty.values().length];
+        for (Difficulty difficulty : Difficulty.values()) {
+            plays[difficulty.ordinal()] = new AtomicIntegerArray(corpus.size(difficulty));
+            wins[difficulty.ordinal()] = new AtomicIntegerArray(corpus.size(difficulty));
+        }
+        tables = buildTables();
+    }
+
+    /**
+     * Retrieves the weights shared by every game in the process.
+     *
+     * @return The shared weights.
+     */
+    static WordWeights shared() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Draws the index of a word of a difficulty level in proportion to its weight.
+     *
+     * @param difficulty The difficulty level.
+     * @param random     The random generator to draw with.
+     * @return The index of the drawn word, or -1 if there are no words of that difficulty.
+     */
+    int sample(Difficulty difficulty, RandomGenerator random) {
+        return tables[difficulty.ordinal()].sample(random);
+    }
+
+    /**
+     * Records whether a stage played with a word was cleared. When the win rate is
+     * weighted, a rebuild of the tables is scheduled in the background.
+     *
+     * @param difficulty The difficulty level of the word.
+     * @param index      The index of the word within its difficulty.
+     * @param won        True if the stage was cleared.
+     */
+    void recordOutcome(Difficulty difficulty, int index, boolean won) {
+        plays[difficulty.ordinal()].incrementAndGet(index);
+        if (won) {
+            wins[difficulty.ordinal()].incrementAndGet(index);
+        }
+        if (factors.winRateExponent() != 0) {
+            requestRebuild();
+        }
+    }
+
+    /**
+     * Changes the exponents of the weighting factors and schedules a rebuild of the
+     * tables in the background.
+     *
+     * @param factors The new exponents.
+     */
+    void setFactors(Factors factors) {
+        this.factors = factors;
+        requestRebuild();
+    }
+
+    private void requestRebuild() {
+        // Only one rebuild is queued at a time; it picks up every change made before it runs
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                rebuildPending.set(false);
+                tables = buildTables();
+            });
+        }
+    }
+
+    private AliasTable[] buildTables() {
+        Factors factors = this.factors;
+        AliasTable[] built = new AliasTable[Difficulty.values().length];
+        int[] letterCounts = new int[LETTER_FREQUENCY.length];
+        for (Difficulty difficulty : Difficulty.values()) {
+            double[] weights = new double[corpus.size(difficulty)];
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = weightOf(difficulty, i, factors, letterCounts);
+            }
+            built[difficulty.ordinal()] = new AliasTable(weights);
+        }
+        return built;
+    }
+
+    private double weightOf(Difficulty difficulty, int index, Factors factors, int[] letterCounts) {
+        double weight = corpus.getWeight(difficulty, index);
+        if (factors.lengthExponent() != 0) {
+            weight *= Math.pow(corpus.getLength(difficulty, index), factors.lengthExponent());
+        }
+        if (factors.rarityExponent() != 0) {
+            weight *= Math.pow(rarity(difficulty, index, letterCounts), factors.rarityExponent());
+        }
+        if (factors.winRateExponent() != 0) {
+            // Laplace smoothing keeps unplayed words at an even chance
+            double winRate = (wins[difficulty.ordinal()].get(index) + 1.0)
+                    / (plays[difficulty.ordinal()].get(index) + 2.0);
+            weight *= Math.pow(1.0 - winRate, factors.winRateExponent());
+        }
+        return weight;
+    }
+
+    private double rarity(Difficulty difficulty, int index, int[] counts) {
+        Arrays.fill(counts, 0);
+        int letters = corpus.countLetters(difficulty, index, counts);
+        double information = 0;
+        for (int letterIndex = 0; letterIndex < counts.length; letterIndex++) {
+            if (counts[letterIndex] > 0) {
+                information -= counts[letterIndex] * Math.log(LETTER_FREQUENCY[letterIndex] / 100.0) / Math.log(2);
+            }
+        }
+        return letters == 0 ? 1.0 : information / letters;
+    }
+}
@@ -0,0 +1,64 @@
+package hangaroo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the alias table samples indices in proportion to their weights.
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+class AliasTableTest {
+
+    private static final int DRAWS = 200_000;
+
+    @Test
+    void indicesAreDrawnInProportionToTheirWeights() {
+        double[] weights = {1, 2, 0, 3, 0.5, 3.5};
+        int[] counts = draw(new AliasTable(weights), new SplittableRandom(9));
+
+        double total = 10;
+        for (int i = 0; i < weights.length; i++) {
+            assertEquals(weights[i] / total, (double) counts[i] / DRAWS, 0.01, "index " + i);
+        }
+        assertEquals(0, counts[2]);
+    }
+
+    @Test
+    void invalidWeightsCountAsZero() {
+        double[] weights = {-4, Double.NaN, 1, Double.POSITIVE_INFINITY, 1};
+        int[] counts = draw(new AliasTable(weights), new SplittableRandom(10));
+
+        assertEquals(0, counts[0] + counts[1] + counts[3]);
+        assertEquals(0.5, (double) counts[2] / DRAWS, 0.01);
+    }
+
+    @Test
+    void allZeroWeightsAreSampledUniformly() {
+        int[] counts = draw(new AliasTable(new double[4]), new SplittableRandom(11));
+
+        for (int count : counts) {
+            assertEquals(0.25, (double) count / DRAWS, 0.01);
+        }
+    }
+
+    @Test
+    void emptyTableDrawsNothing() {
+        AliasTable table = new AliasTable(new double[0]);
+
+        assertEquals(0, table.size());
+        assertEquals(-1, table.sample(new SplittableRandom(12)));
+    }
+
+    private static int[] draw(AliasTable table, SplittableRandom random) {
+        int[] counts = new int[table.size()];
+        for (int i = 0; i < DRAWS; i++) {
+            counts[table.sample(random)]++;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,107 @@
+package hangaroo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the output of the frame renderer, in particular that ANSI mode redraws only
+ * the lines that changed since the previous frame.
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+class FrameRendererTest {
+
+    private static final String ESC = "\u001B[";
+
+    private ByteArrayOutputStream terminal;
+    private PrintStream out;
+
+    @BeforeEach
+    void openTerminal() {
+        terminal = new ByteArrayOutputStream();
+        out = new PrintStream(terminal, false, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void plainModeWritesEveryFrameAsIs() {
+        FrameRenderer renderer = new FrameRenderer(out, false);
+
+        renderer.appendLine("Stage 1").append("Score: ").append(40).render();
+        renderer.appendLine("Stage 1").append("Score: ").append(40).render();
+
+        assertEquals("Stage 1\nScore: 40Stage 1\nScore: 40", read());
+    }
+
+    @Test
+    void firstFrameClearsTheScreen() {
+        FrameRenderer renderer = new FrameRenderer(out, true);
+
+        renderer.appendLine("A").appendLine("B").render();
+
+        assertEquals(ESC + "2J" + ESC + "H" + "A\nB\n", read());
+    }
+
+    @Test
+    void onlyChangedLinesAreRedrawn() {
+        FrameRenderer renderer = new FrameRenderer(out, true);
+        renderer.appendLine("A").appendLine("B").appendLine("C").render();
+        read();
+
+        renderer.appendLine("A").appendLine("X").appendLine("C").render();
+        assertEquals(ESC + "2;1H" + "X" + ESC + "K" + ESC + "4;1H", read());
+
+        // An identical frame only puts the cursor back
+        renderer.appendLine("A").appendLine("X").appendLine("C").render();
+        assertEquals(ESC + "4;1H", read());
+    }
+
+    @Test
+    void shorterFrameClearsTheLinesBelowIt() {
+        FrameRenderer renderer = new FrameRenderer(out, true);
+        renderer.appendLine("A").appendLine("B").appendLine("C").render();
+        read();
+
+        renderer.appendLine("A").appendLine("B").render();
+
+        assertEquals(ESC + "3;1H" + ESC + "J" + ESC + "3;1H", read());
+    }
+
+    @Test
+    void cursorIsLeftAfterATrailingPrompt() {
+        FrameRenderer renderer = new FrameRenderer(out, true);
+        renderer.appendLine("A").appendLine("B").render();
+        read();
+
+        renderer.appendLine("A").append("Guess: ").render();
+
+        assertEquals(ESC + "2;1H" + "Guess: " + ESC + "K" + ESC + "2;8H", read());
+    }
+
+    @Test
+    void invalidatedFrameIsDrawnInFull() {
+        FrameRenderer renderer = new FrameRenderer(out, true);
+        renderer.appendLine("A").render();
+        read();
+
+        renderer.invalidate();
+        renderer.appendLine("A").render();
+
+        assertEquals(ESC + "2J" + ESC + "H" + "A\n", read());
+    }
+
+    /**
+     * Retrieves what the renderer has written since the last call.
+     */
+    private String read() {
+        String written = terminal.toString(StandardCharsets.UTF_8);
+        terminal.reset();
+        return written;
+    }
+}
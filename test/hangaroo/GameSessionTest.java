@@ -0,0 +1,135 @@
+package hangaroo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the rules and the events of a game session.
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+class GameSessionTest {
+
+    @Test
+    void sameSeedAndGuessesReplayTheSameGame() {
+        List<String> first = new ArrayList<>();
+        List<String> second = new ArrayList<>();
+
+        for (List<String> events : List.of(first, second)) {
+            Player player = new Player("Replay");
+            GameSession session = new GameSession(GameMode.SURVIVAL, player, Difficulty.MEDIUM, new Recorder(events), 1234);
+            session.start();
+            play(session, 3);
+            session.submitGuess('1');
+        }
+
+        assertEquals(first, second);
+        assertEquals(3, first.stream().filter(event -> event.startsWith("cleared")).count());
+    }
+
+    @Test
+    void wrongGuessesEndTheGame() {
+        List<String> events = new ArrayList<>();
+        Player player = new Player("Loser");
+        GameSession session = new GameSession(GameMode.CLASSIC, player, Difficulty.EASY, new Recorder(events), 99);
+        session.start();
+
+        for (int i = 1; i < Player.MAX_HEALTH; i++) {
+            assertEquals(GuessResult.WRONG, session.submitGuess('1'));
+        }
+        assertEquals(GuessResult.GAME_OVER, session.submitGuess('1'));
+
+        assertFalse(session.isPlaying());
+        assertEquals(Player.NO_HEALTH, player.getHealth());
+        assertEquals(GuessResult.NOT_PLAYING, session.submitGuess('A'));
+        assertEquals("ended lost", events.get(events.size() - 1));
+    }
+
+    @Test
+    void clearingEveryClassicStageWinsTheGame() {
+        List<String> events = new ArrayList<>();
+        Player player = new Player("Winner");
+        GameSession session = new GameSession(GameMode.CLASSIC, player, Difficulty.HARD, new Recorder(events), 7);
+        session.start();
+
+        GuessResult result = play(session, Integer.MAX_VALUE);
+
+        assertEquals(GuessResult.GAME_WON, result);
+        assertEquals(GameMode.CLASSIC.MAX_WORDS_PER_DIFFICULTY * 1000, player.getScore());
+        assertEquals(Player.MAX_HEALTH, player.getHealth());
+        assertEquals(GameMode.CLASSIC.MAX_WORDS_PER_DIFFICULTY,
+                events.stream().filter(event -> event.startsWith("cleared")).count());
+        assertEquals("ended won", events.get(events.size() - 1));
+    }
+
+    @Test
+    void listenersCanReadTheSessionFromAnotherThread() {
+        // A listener that waits for another thread to read the session would deadlock if it were called under the session's lock
+        GameListener listener = new GameListener() {
+            @Override
+            public void guessed(GameSession session, char letter, GuessResult result) {
+                CompletableFuture.supplyAsync(session::currentTurn).orTimeout(5, TimeUnit.SECONDS).join();
+            }
+        };
+        Player player = new Player("Reader");
+        GameSession session = new GameSession(GameMode.SURVIVAL, player, Difficulty.EASY, listener, 5);
+        session.start();
+
+        assertEquals(GuessResult.WRONG, session.submitGuess('1'));
+    }
+
+    /**
+     * Guesses the first hidden letter of each stage until the game ends or the given
+     * number of stages has been cleared.
+     *
+     * @return The result of the last guess.
+     */
+    private static GuessResult play(GameSession session, int stages) {
+        GuessResult result = GuessResult.NOT_PLAYING;
+        int cleared = 0;
+        while (session.isPlaying() && cleared < stages) {
+            String word = session.getStage().getWord().getWord();
+            String shown = session.currentTurn().guessedLetters();
+            result = session.submitGuess(word.charAt(shown.indexOf('_') / 2));
+            if (result == GuessResult.STAGE_CLEARED) {
+                cleared++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Records the events of a session as strings.
+     */
+    private record Recorder(List<String> events) implements GameListener {
+
+        @Override
+        public void stageStarted(GameSession session) {
+            events.add("started " + session.currentTurn().guessedLetters());
+        }
+
+        @Override
+        public void guessed(GameSession session, char letter, GuessResult result) {
+            events.add("guessed " + letter + " " + result);
+        }
+
+        @Override
+        public void stageCleared(GameSession session, Stage stage) {
+            events.add("cleared " + stage.getWord().getWord());
+        }
+
+        @Override
+        public void gameEnded(GameSession session, boolean won) {
+            events.add(won ? "ended won" : "ended lost");
+        }
+    }
+}
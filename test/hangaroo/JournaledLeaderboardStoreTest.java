@@ -0,0 +1,122 @@
+package hangaroo;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that the journaled leaderboard recovers its scores from the snapshot and the
+ * journal.
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+class JournaledLeaderboardStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopenedStoreHasTheSameScores() {
+        JournaledLeaderboardStore store = open(1000);
+        store.update("Ann", 3);
+        store.update("Bob", 7);
+        store.update("Cy", 5);
+        store.update("Ann", 9);
+        List<LeaderboardView.Entry> top = store.top(10);
+        store.close();
+
+        JournaledLeaderboardStore reopened = open(1000);
+        assertEquals(top, reopened.top(10));
+        assertEquals(List.of(new LeaderboardView.Entry("Ann", 9), new LeaderboardView.Entry("Bob", 7),
+                new LeaderboardView.Entry("Cy", 5)), top);
+        reopened.close();
+    }
+
+    @Test
+    void tornRecordIsCutOff() throws IOException {
+        JournaledLeaderboardStore store = open(1000);
+        store.update("Ann", 3);
+        store.update("Bob", 7);
+        store.close();
+        // A record cut short by a crash: its length promises more bytes than follow
+        Files.write(journal(), new byte[]{0, 0, 0, 4, 'D', 'a'}, StandardOpenOption.APPEND);
+
+        JournaledLeaderboardStore reopened = open(1000);
+        assertEquals(2, reopened.size());
+        reopened.update("Dan", 4);
+        reopened.close();
+
+        JournaledLeaderboardStore recovered = open(1000);
+        assertEquals(List.of(new LeaderboardView.Entry("Bob", 7), new LeaderboardView.Entry("Dan", 4),
+                new LeaderboardView.Entry("Ann", 3)), recovered.top(10));
+        recovered.close();
+    }
+
+    @Test
+    void compactedStoreKeepsEveryScore() {
+        JournaledLeaderboardStore store = open(8);
+        for (int i = 0; i < 100; i++) {
+            store.update("Player " + i % 40, i);
+            if (i % 10 == 9) {
+                store.flush();
+            }
+        }
+        List<LeaderboardView.Entry> top = store.top(40);
+        store.close();
+
+        JournaledLeaderboardStore reopened = open(8);
+        assertEquals(40, reopened.size());
+        assertEquals(top, reopened.top(40));
+        reopened.close();
+    }
+
+    @Test
+    void malformedSnapshotIsNeverCompactedOver() throws IOException {
+        byte[] malformed = "<leaderboard><player><name>Ann</name>".getBytes(StandardCharsets.UTF_8);
+        Files.write(directory.resolve("Leaderboard.xml"), malformed);
+        JournaledLeaderboardStore store = open(1000);
+        store.update("Bob", 7);
+        store.compact();
+        store.close();
+
+        assertArrayEquals(malformed, Files.readAllBytes(directory.resolve("Leaderboard.xml")));
+        JournaledLeaderboardStore reopened = open(1000);
+        assertEquals(List.of(new LeaderboardView.Entry("Bob", 7)), reopened.top(10));
+        reopened.close();
+    }
+
+    @Test
+    void overlongNameIsCutShortOnceAndJournaled() {
+        // 600 two-byte characters; 512 fit in a record
+        String name = "é".repeat(600);
+        JournaledLeaderboardStore store = open(1000);
+        store.update(name, 5);
+        store.update("Ann", 3);
+        assertEquals(1, store.rank(name));
+        store.close();
+
+        JournaledLeaderboardStore reopened = open(1000);
+        assertEquals(List.of(new LeaderboardView.Entry("é".repeat(512), 5), new LeaderboardView.Entry("Ann", 3)),
+                reopened.top(10));
+        assertEquals(1, reopened.rank(name));
+        reopened.close();
+    }
+
+    private JournaledLeaderboardStore open(int compactThreshold) {
+        return new JournaledLeaderboardStore(directory.resolve("Leaderboard.xml"), journal(), compactThreshold, 64, 10);
+    }
+
+    private Path journal() {
+        return directory.resolve("Leaderboard.journal");
+    }
+}
@@ -0,0 +1,100 @@
+package hangaroo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the ranks, top lists and pages of the sharded leaderboard index against a
+ * sorted list of the same scores.
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+class LeaderboardIndexTest {
+
+    @Test
+    void queriesMatchASortedListOfScores() {
+        LeaderboardIndex index = new LeaderboardIndex(8);
+        Map<String, Integer> scores = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(13);
+        for (int i = 0; i < 5_000; i++) {
+            // Few distinct scores, so many players tie and are ranked by name
+            String name = "Player " + random.nextInt(800);
+            int score = random.nextInt(60);
+            assertEquals(scores.put(name, score), index.upsert(name, score), name);
+        }
+        List<LeaderboardView.Entry> expected = sorted(scores);
+
+        assertEquals(expected.size(), index.size());
+        assertEquals(expected.subList(0, 25), index.top(25));
+        assertEquals(expected, index.top(Integer.MAX_VALUE));
+        for (int position = 0; position < expected.size(); position++) {
+            String name = expected.get(position).name();
+            assertEquals(position + 1, index.rank(name), name);
+            assertEquals(expected.subList(Math.max(position - 3, 0), Math.min(position + 4, expected.size())),
+                    index.around(name, 3), name);
+        }
+    }
+
+    @Test
+    void unknownPlayerHasNoRankOrPage() {
+        LeaderboardIndex index = new LeaderboardIndex(4);
+        index.upsert("Ann", 5);
+
+        assertNull(index.score("Bob"));
+        assertEquals(0, index.rank("Bob"));
+        assertEquals(List.of(), index.around("Bob", 2));
+        assertEquals(List.of(new LeaderboardView.Entry("Ann", 5)), index.around("Ann", 0));
+    }
+
+    @Test
+    void concurrentUpdatesAreAllIndexed() throws Exception {
+        LeaderboardIndex index = new LeaderboardIndex(4);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                int first = thread * 1_000;
+                writers.add(executor.submit(() -> {
+                    for (int i = first; i < first + 1_000; i++) {
+                        index.upsert("Player " + i, i % 97);
+                        index.upsert("Player " + i, i);
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(4_000, index.size());
+        assertEquals(1, index.rank("Player 3999"));
+        assertEquals(4_000, index.rank("Player 0"));
+        Map<String, Integer> scores = new HashMap<>();
+        index.forEach(scores::put);
+        assertEquals(4_000, scores.size());
+        assertEquals(1_234, scores.get("Player 1234"));
+    }
+
+    private static List<LeaderboardView.Entry> sorted(Map<String, Integer> scores) {
+        List<LeaderboardView.Entry> entries = new ArrayList<>();
+        scores.forEach((name, score) -> entries.add(new LeaderboardView.Entry(name, score)));
+        entries.sort(Comparator.comparingInt(LeaderboardView.Entry::score).reversed()
+                .thenComparing(LeaderboardView.Entry::name));
+        return entries;
+    }
+}
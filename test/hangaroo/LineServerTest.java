@@ -0,0 +1,125 @@
+package hangaroo;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the line server rejects lines over its length limit and goes on serving
+ * the connection.
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+class LineServerTest {
+
+    private static final int MAX_LINE_LENGTH = 256;
+    private static final String TOO_LONG = "Line too long!";
+
+    private Thread server;
+    private Socket socket;
+    private StringBuilder received;
+
+    @BeforeEach
+    void connect() throws IOException, InterruptedException {
+        int port;
+        try (ServerSocket probe = new ServerSocket(0)) {
+            port = probe.getLocalPort();
+        }
+        server = new Thread(() -> {
+            try {
+                new LineServer(port).run();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }, "line-server");
+        server.setDaemon(true);
+        server.start();
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (socket == null) {
+            try {
+                socket = new Socket("localhost", port);
+            } catch (ConnectException e) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw e;
+                }
+                Thread.sleep(20);
+            }
+        }
+        socket.setSoTimeout(5_000);
+        received = new StringBuilder();
+        expect("Enter player name: ");
+    }
+
+    @AfterEach
+    void disconnect() throws IOException {
+        socket.close();
+        server.interrupt();
+    }
+
+    @Test
+    void lineOverTheLimitIsRejectedAndThePromptRepeated() throws IOException {
+        send("N".repeat(MAX_LINE_LENGTH + 1) + "\n");
+        expect(TOO_LONG);
+        expect("Enter player name: ");
+
+        // A line of exactly the limit is accepted
+        send("N".repeat(MAX_LINE_LENGTH) + "\n");
+        expect("Select difficulty");
+
+        send("9".repeat(MAX_LINE_LENGTH * 4) + "\r\n");
+        expect(TOO_LONG);
+        expect("Select difficulty");
+        send("1\n");
+        expect("Select [1] Classic");
+    }
+
+    @Test
+    void longLineSplitAcrossWritesIsRejectedOnce() throws IOException {
+        // Larger than the server's read buffer, so it arrives in several reads
+        for (int i = 0; i < 8; i++) {
+            send("N".repeat(200));
+        }
+        send("\nAnn\n");
+        expect(TOO_LONG);
+        String answered = expect("Select difficulty");
+        assertTrue(answered.contains("Enter player name: "), answered);
+        assertFalse(answered.contains(TOO_LONG), "rejected more than once: " + answered);
+    }
+
+    private void send(String text) throws IOException {
+        OutputStream output = socket.getOutputStream();
+        output.write(text.getBytes(StandardCharsets.UTF_8));
+        output.flush();
+    }
+
+    /**
+     * Reads until the given text arrives and drops everything up to and including it.
+     *
+     * @return What was received before the text.
+     */
+    private String expect(String text) throws IOException {
+        InputStream input = socket.getInputStream();
+        byte[] buffer = new byte[4096];
+        while (received.indexOf(text) < 0) {
+            int read = input.read(buffer);
+            assertTrue(read >= 0, "connection closed before \"" + text + "\": " + received);
+            received.append(new String(buffer, 0, read, StandardCharsets.UTF_8));
+        }
+        String before = received.substring(0, received.indexOf(text));
+        received.delete(0, before.length() + text.length());
+        return before;
+    }
+}
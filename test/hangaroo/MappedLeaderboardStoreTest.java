@@ -0,0 +1,135 @@
+package hangaroo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the ranking and the files of the memory-mapped leaderboard.
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+class MappedLeaderboardStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rankingMatchesASortedMapAndSurvivesReopening() throws IOException {
+        Map<String, Integer> expected = new HashMap<>();
+        MappedLeaderboardStore store = open();
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 5_000; i++) {
+            // Enough players to grow the files past their initial size
+            String name = "Player " + random.nextInt(600);
+            int score = random.nextInt(50);
+            store.update(name, score);
+            expected.put(name, score);
+        }
+        assertEquals(sorted(expected), store.top(Integer.MAX_VALUE));
+        List<LeaderboardView.Entry> top = sorted(expected);
+        assertEquals(top.indexOf(new LeaderboardView.Entry("Player 5", expected.get("Player 5"))) + 1,
+                store.rank("Player 5"));
+        store.close();
+
+        MappedLeaderboardStore reopened = open();
+        assertEquals(top, reopened.top(Integer.MAX_VALUE));
+        reopened.close();
+    }
+
+    @Test
+    void storesSharingTheFilesSeeEachOthersUpdates() throws IOException {
+        // As two game processes would, each with its own mappings
+        MappedLeaderboardStore first = open();
+        MappedLeaderboardStore second = open();
+        first.update("Ann", 3);
+        long version = second.version();
+        second.update("Bob", 7);
+
+        assertEquals(List.of(new LeaderboardView.Entry("Bob", 7), new LeaderboardView.Entry("Ann", 3)), first.top(10));
+        assertTrue(first.version() > version);
+        for (int i = 0; i < 1_000; i++) {
+            // Enough players for the first store to grow the files past the second's mappings
+            first.update("Player " + i, i);
+        }
+        second.update("Ann", 2_000);
+        assertEquals(1_002, second.size());
+        assertEquals(1, first.rank("Ann"));
+        assertEquals(first.top(Integer.MAX_VALUE), second.top(Integer.MAX_VALUE));
+        first.close();
+        second.close();
+    }
+
+    @Test
+    void damagedIndexIsRebuilt() throws IOException {
+        MappedLeaderboardStore store = open();
+        store.update("Ann", 3);
+        store.update("Bob", 7);
+        store.update("Cy", 5);
+        store.close();
+        byte[] index = Files.readAllBytes(directory.resolve("Leaderboard.index"));
+        index[0] = 0;
+        Files.write(directory.resolve("Leaderboard.index"), index);
+
+        MappedLeaderboardStore reopened = open();
+        assertEquals(List.of(new LeaderboardView.Entry("Bob", 7), new LeaderboardView.Entry("Cy", 5),
+                new LeaderboardView.Entry("Ann", 3)), reopened.top(10));
+        reopened.close();
+    }
+
+    @Test
+    void longNamesSharingAPrefixKeepSeparateRecords() throws IOException {
+        String prefix = "é".repeat(30);
+        MappedLeaderboardStore store = open();
+        store.update(prefix + "A", 5);
+        store.update(prefix + "B", 6);
+
+        assertEquals(2, store.size());
+        assertEquals(2, store.rank(prefix + "A"));
+        assertEquals(1, store.rank(prefix + "B"));
+        // 18 two-byte characters fit before the hash; a 19th would be split
+        assertTrue(store.top(1).get(0).name().matches("é{18}~[0-9a-f]{8}"));
+        store.close();
+    }
+
+    @Test
+    void xmlLeaderboardIsMigratedOnFirstOpen() throws IOException {
+        Map<String, Integer> scores = new HashMap<>();
+        for (int i = 0; i < 1_000; i++) {
+            scores.put("Player " + i, i % 97);
+        }
+        Path xml = directory.resolve("Leaderboard.xml");
+        Leaderboard.writeXml(xml, scores);
+
+        MappedLeaderboardStore store = MappedLeaderboardStore.open(directory.resolve("Leaderboard.records"),
+                directory.resolve("Leaderboard.index"), xml);
+
+        assertEquals(sorted(scores), store.top(Integer.MAX_VALUE));
+        store.close();
+    }
+
+    private MappedLeaderboardStore open() throws IOException {
+        return new MappedLeaderboardStore(directory.resolve("Leaderboard.records"), directory.resolve("Leaderboard.index"));
+    }
+
+    private static List<LeaderboardView.Entry> sorted(Map<String, Integer> scores) {
+        List<LeaderboardView.Entry> entries = new ArrayList<>();
+        scores.forEach((name, score) -> entries.add(new LeaderboardView.Entry(name, score)));
+        entries.sort(Comparator.comparingInt(LeaderboardView.Entry::score).reversed()
+                .thenComparing(LeaderboardView.Entry::name));
+        return entries;
+    }
+}
@@ -0,0 +1,113 @@
+package hangaroo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that the merged leaderboard ranks every player by their best score on any
+ * board, however deep in the ranking the player is.
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+class MergedLeaderboardViewTest {
+
+    @Test
+    void ranksAndPagesMatchASortedMapOfBestScores() {
+        List<Board> boards = List.of(new Board(), new Board(), new Board());
+        Map<String, Integer> best = new HashMap<>();
+        SplittableRandom random = new SplittableRandom(17);
+        for (int i = 0; i < 3_000; i++) {
+            String name = "Player " + random.nextInt(1_000);
+            int score = random.nextInt(5_000);
+            boards.get(random.nextInt(boards.size())).update(name, score);
+        }
+        for (Board board : boards) {
+            board.index.forEach((name, score) -> best.merge(name, score, Math::max));
+        }
+        MergedLeaderboardView view = new MergedLeaderboardView(boards);
+        List<LeaderboardView.Entry> expected = sorted(best);
+
+        assertEquals(expected.size(), view.size());
+        assertEquals(expected.subList(0, 10), view.top(10));
+        for (int position : new int[]{0, 5, 63, 64, 200, expected.size() - 1}) {
+            String name = expected.get(position).name();
+            assertEquals(position + 1, view.rank(name), name);
+            assertEquals(expected.subList(Math.max(position - 2, 0), Math.min(position + 3, expected.size())),
+                    view.around(name, 2), name);
+        }
+        assertEquals(0, view.rank("Nobody"));
+        assertEquals(List.of(), view.around("Nobody", 2));
+    }
+
+    @Test
+    void viewFollowsTheBoards() {
+        Board first = new Board();
+        Board second = new Board();
+        first.update("Ann", 3);
+        second.update("Bob", 7);
+        MergedLeaderboardView view = new MergedLeaderboardView(List.of(first, second));
+        assertEquals(2, view.rank("Ann"));
+        assertEquals(2, view.size());
+
+        second.update("Ann", 9);
+        second.update("Cy", 1);
+
+        assertEquals(1, view.rank("Ann"));
+        assertEquals(3, view.size());
+    }
+
+    private static List<LeaderboardView.Entry> sorted(Map<String, Integer> scores) {
+        List<LeaderboardView.Entry> entries = new ArrayList<>();
+        scores.forEach((name, score) -> entries.add(new LeaderboardView.Entry(name, score)));
+        entries.sort(Comparator.comparingInt(LeaderboardView.Entry::score).reversed()
+                .thenComparing(LeaderboardView.Entry::name));
+        return entries;
+    }
+
+    /**
+     * A board held in memory only.
+     */
+    private static final class Board implements LeaderboardView {
+        final LeaderboardIndex index = new LeaderboardIndex();
+        long version;
+
+        void update(String name, int score) {
+            index.upsert(name, score);
+            version++;
+        }
+
+        @Override
+        public List<Entry> top(int limit) {
+            return index.top(limit);
+        }
+
+        @Override
+        public int rank(String name) {
+            return index.rank(name);
+        }
+
+        @Override
+        public List<Entry> around(String name, int radius) {
+            return index.around(name, radius);
+        }
+
+        @Override
+        public int size() {
+            return index.size();
+        }
+
+        @Override
+        public long version() {
+            return version;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package hangaroo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the scoreboard protocol between {@link ScoreboardClient} and
+ * {@link ScoreboardStub}.
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+class ScoreboardTest {
+
+    private ScoreboardStub stub;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        stub = new ScoreboardStub(0);
+        stub.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        stub.stop();
+    }
+
+    @Test
+    void malformedBatchIsRejectedWhole() throws Exception {
+        assertEquals(400, post("batch-1", "classic-easy\tAnn\t5\nclassic-easy\tBob\tlots\n"));
+        assertEquals(0, stub.getBatchesApplied());
+
+        // The key of the rejected batch was not remembered, so its retry is applied
+        assertEquals(204, post("batch-1", "classic-easy\tAnn\t5\n"));
+        assertEquals(1, stub.getBatchesApplied());
+        assertEquals(204, post("batch-1", "classic-easy\tAnn\t5\n"));
+        assertEquals(1, stub.getDuplicates());
+    }
+
+    @Test
+    void clientRetriesFailedBatches() throws Exception {
+        stub.failNext(2);
+        ScoreboardClient client = new ScoreboardClient(URI.create("http://localhost:" + stub.getPort()), 100, 10, 10, 60, 10);
+        client.start();
+        for (int i = 0; i < 25; i++) {
+            client.submit("classic-easy", "Player " + i, i);
+        }
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (client.getMetrics().scoresSent() < 25 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        client.stop();
+
+        ScoreboardClient.Metrics metrics = client.getMetrics();
+        assertEquals(25, metrics.scoresSent());
+        assertEquals(2, metrics.retries());
+        assertEquals(0, metrics.dropped());
+        assertEquals(0, metrics.pending());
+    }
+
+    private int post(String key, String body) throws IOException, InterruptedException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + stub.getPort() + "/scores"))
+                .header("Content-Encoding", "gzip")
+                .header("Idempotency-Key", key)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(compressed.toByteArray()))
+                .build();
+        try (HttpClient http = HttpClient.newHttpClient()) {
+            return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        }
+    }
+}
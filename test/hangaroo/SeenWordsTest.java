@@ -0,0 +1,172 @@
+package hangaroo;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests a player's history of seen words and its file format.
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+class SeenWordsTest {
+
+    @Test
+    void historyMatchesASetAcrossArrayAndBitmapContainers() {
+        SeenWords seen = new SeenWords();
+        Set<Integer> expected = new HashSet<>();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 20_000; i++) {
+            // Dense IDs in the first container grow it into a bitmap; the rest stay sparse arrays
+            int id = random.nextBoolean() ? random.nextInt(6_000) : random.nextInt(1 << 20);
+            if (random.nextInt(4) == 0) {
+                seen.remove(id);
+                expected.remove(id);
+            } else {
+                seen.add(id);
+                expected.add(id);
+            }
+        }
+
+        assertEquals(expected.size(), seen.cardinality());
+        for (int id = 0; id < 1 << 20; id++) {
+            assertEquals(expected.contains(id), seen.contains(id), "id " + id);
+        }
+    }
+
+    @Test
+    void savedHistoryLoadsBack() throws IOException {
+        String name = "Seen Round Trip";
+        SeenWords seen = SeenWords.load(name);
+        seen.clear();
+        for (int id = 0; id < 5_000; id++) {
+            seen.add(id);
+        }
+        seen.add(70_000);
+        seen.add(1 << 24);
+        seen.save();
+
+        SeenWords loaded = SeenWords.load(name);
+
+        assertEquals(5_002, loaded.cardinality());
+        assertTrue(loaded.contains(4_999));
+        assertTrue(loaded.contains(70_000));
+        assertTrue(loaded.contains(1 << 24));
+        assertFalse(loaded.contains(5_000));
+        assertTrue(Files.exists(file(name)));
+    }
+
+    @Test
+    void legacyHistoryStartsOver() throws IOException {
+        String name = "Seen Legacy";
+        SeenWords seen = SeenWords.load(name);
+        seen.add(7);
+        seen.save();
+        Path file = file(name);
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putInt(Integer.BYTES, 1);
+        Files.write(file, bytes);
+
+        assertEquals(0, SeenWords.load(name).cardinality());
+    }
+
+    @Test
+    void truncatedHistoryStartsOver() throws IOException {
+        String name = "Seen Truncated";
+        SeenWords seen = SeenWords.load(name);
+        for (int id = 0; id < 100; id++) {
+            seen.add(id);
+        }
+        seen.save();
+        Path file = file(name);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+        assertEquals(0, SeenWords.load(name).cardinality());
+    }
+
+    @Test
+    void longNameGetsAShortFileName() throws IOException {
+        String name = "Ω".repeat(300);
+        SeenWords seen = SeenWords.load(name);
+        seen.add(11);
+        seen.save();
+
+        assertTrue(SeenWords.load(name).contains(11));
+        assertEquals(64 + ".seen".length(), file(name).getFileName().toString().length());
+    }
+
+    @Test
+    void playerWhoseDigestIsTakenGetsTheNextFile() throws IOException {
+        String name = "Seen Collision";
+        Path file = file(name);
+        Path next = file.resolveSibling(file.getFileName().toString().replace(".seen", "-1.seen"));
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(next);
+        SeenWords seen = SeenWords.load(name);
+        seen.add(3);
+        seen.save();
+        // Pretend the file belongs to another player with the same digest
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).put(Integer.BYTES * 3, (byte) 'X');
+        Files.write(file, bytes);
+
+        SeenWords other = SeenWords.load(name);
+        assertEquals(0, other.cardinality());
+        other.add(5);
+        other.save();
+
+        assertArrayEquals(bytes, Files.readAllBytes(file));
+        assertTrue(Files.exists(next));
+        assertTrue(SeenWords.load(name).contains(5));
+    }
+
+    @Test
+    void inconsistentHistoryStartsOver() throws IOException {
+        String name = "Seen Inconsistent";
+        SeenWords seen = SeenWords.load(name);
+        seen.add(1);
+        seen.add(2);
+        seen.save();
+        Path file = file(name);
+        byte[] bytes = Files.readAllBytes(file);
+        // The two values of the array container, swapped
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int values = bytes.length - Character.BYTES * 2;
+        buffer.putChar(values, (char) 2).putChar(values + Character.BYTES, (char) 1);
+        Files.write(file, bytes);
+
+        assertEquals(0, SeenWords.load(name).cardinality());
+    }
+
+    /**
+     * Finds the file a player's history is saved to.
+     */
+    private static Path file(String name) throws IOException {
+        String digest;
+        try {
+            digest = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(name.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        return Path.of(SeenWords.PLAYERS_PATH, digest.substring(0, 2), digest + ".seen");
+    }
+}
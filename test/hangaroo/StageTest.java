@@ -0,0 +1,57 @@
+package hangaroo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests which letters a stage hides and how guesses reveal them.
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+class StageTest {
+
+    @Test
+    void onlyLettersAreHidden() {
+        Stage stage = new Stage();
+        SplittableRandom random = new SplittableRandom(3);
+        for (String word : new String[]{"A B", "X - Y", "ICE-CREAM", "HELLO WORLD"}) {
+            for (Difficulty difficulty : Difficulty.values()) {
+                for (int i = 0; i < 1_000; i++) {
+                    stage.reset(new Word(word, "A word"), difficulty, random);
+                    String shown = stage.retrieveGuessedLetters();
+
+                    assertFalse(stage.getIsGuessed(), word);
+                    for (int position = 0; position < word.length(); position++) {
+                        if (!Character.isLetter(word.charAt(position))) {
+                            assertEquals(word.charAt(position), shown.charAt(position * 2), word);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void guessRevealsEveryOccurrenceOfTheLetter() {
+        Stage stage = new Stage();
+        SplittableRandom random = new SplittableRandom(11);
+        do {
+            stage.reset(new Word("BANANA", "A fruit"), Difficulty.HARD, random);
+        } while (!stage.retrieveGuessedLetters().startsWith("B _ "));
+
+        assertTrue(stage.guessLetter('a'));
+        assertFalse(stage.guessLetter('A'));
+        assertFalse(stage.retrieveGuessedLetters().contains("A _"));
+        for (char letter = 'A'; letter <= 'Z'; letter++) {
+            stage.guessLetter(letter);
+        }
+        assertTrue(stage.getIsGuessed());
+        assertEquals("B A N A N A ", stage.retrieveGuessedLetters());
+    }
+}
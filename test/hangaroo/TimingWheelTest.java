@@ -0,0 +1,96 @@
+package hangaroo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests when the timeouts of a timing wheel fire, including timeouts further away
+ * than one rotation, cancelled timeouts and timeouts re-armed by their own task.
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+class TimingWheelTest {
+
+    private static final long TICK_MILLIS = 10;
+
+    @Test
+    void timeoutsFireNoEarlierThanTheirDelay() throws InterruptedException {
+        // Eight buckets of 10 ms: the 250 ms timeout waits for three rotations
+        TimingWheel wheel = new TimingWheel(TICK_MILLIS, 8);
+        for (long delay : new long[]{30, 80, 250}) {
+            CountDownLatch fired = new CountDownLatch(1);
+            AtomicLong firedAt = new AtomicLong();
+            TimingWheel.Timeout timeout = new TimingWheel.Timeout(() -> {
+                firedAt.set(System.nanoTime());
+                fired.countDown();
+            });
+            long start = System.nanoTime();
+            wheel.schedule(timeout, delay);
+
+            assertTrue(fired.await(5, TimeUnit.SECONDS), delay + " ms timeout did not fire");
+            // The wheel may be about to tick when the timeout is placed, so allow one tick early
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(firedAt.get() - start);
+            assertTrue(elapsed >= delay - TICK_MILLIS, delay + " ms timeout fired after " + elapsed + " ms");
+            assertEquals(0, wheel.size());
+        }
+    }
+
+    @Test
+    void cancelledTimeoutDoesNotFire() throws InterruptedException {
+        TimingWheel wheel = new TimingWheel(TICK_MILLIS, 8);
+        AtomicInteger fired = new AtomicInteger();
+        TimingWheel.Timeout timeout = new TimingWheel.Timeout(fired::incrementAndGet);
+        wheel.schedule(timeout, 50);
+        assertEquals(1, wheel.size());
+
+        wheel.cancel(timeout);
+        wheel.cancel(timeout);
+        assertEquals(0, wheel.size());
+
+        Thread.sleep(150);
+        assertEquals(0, fired.get());
+    }
+
+    @Test
+    void reschedulingReplacesThePendingDeadline() throws InterruptedException {
+        TimingWheel wheel = new TimingWheel(TICK_MILLIS, 8);
+        AtomicInteger fired = new AtomicInteger();
+        TimingWheel.Timeout timeout = new TimingWheel.Timeout(fired::incrementAndGet);
+        wheel.schedule(timeout, 20);
+        wheel.schedule(timeout, 300);
+        assertEquals(1, wheel.size());
+
+        Thread.sleep(150);
+        assertEquals(0, fired.get());
+        wheel.cancel(timeout);
+    }
+
+    @Test
+    void taskCanReArmItsOwnTimeout() throws InterruptedException {
+        TimingWheel wheel = new TimingWheel(TICK_MILLIS, 8);
+        CountDownLatch done = new CountDownLatch(3);
+        TimingWheel.Timeout[] timeout = new TimingWheel.Timeout[1];
+        timeout[0] = new TimingWheel.Timeout(() -> {
+            done.countDown();
+            if (done.getCount() > 0) {
+                wheel.schedule(timeout[0], 20);
+            }
+        });
+        // A second timeout in the same bucket must still fire after the first re-arms
+        CountDownLatch neighbour = new CountDownLatch(1);
+        wheel.schedule(timeout[0], 20);
+        wheel.schedule(new TimingWheel.Timeout(neighbour::countDown), 20);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(neighbour.await(5, TimeUnit.SECONDS));
+        assertEquals(0, wheel.size());
+    }
+}
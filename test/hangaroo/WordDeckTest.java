@@ -0,0 +1,69 @@
+package hangaroo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that a word deck deals every word once per epoch and keeps its no-repeat
+ * window across reshuffles.
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+class WordDeckTest {
+
+    @Test
+    void everyEpochDealsEveryWordOnce() {
+        WordDeck deck = new WordDeck(50, 10, new SplittableRandom(1));
+        for (int epoch = 0; epoch < 20; epoch++) {
+            boolean[] dealt = new boolean[deck.size()];
+            for (int i = 0; i < deck.size(); i++) {
+                int index = deck.draw();
+                assertFalse(dealt[index], "index " + index + " dealt twice in epoch " + epoch);
+                dealt[index] = true;
+            }
+            assertEquals(epoch, deck.getEpoch());
+        }
+    }
+
+    @Test
+    void noWordRepeatsWithinTheWindowAcrossEpochs() {
+        int size = 12;
+        int window = 5;
+        WordDeck deck = new WordDeck(size, window, new SplittableRandom(2));
+        int[] lastDraw = new int[size];
+        Arrays.fill(lastDraw, -size);
+        for (int draw = 0; draw < size * 500; draw++) {
+            int index = deck.draw();
+            assertTrue(draw - lastDraw[index] > window, "index " + index + " repeated at draw " + draw);
+            lastDraw[index] = draw;
+        }
+    }
+
+    @Test
+    void windowIsCappedAtHalfTheDeck() {
+        // A window as large as the deck could not be kept; the deck must still deal
+        WordDeck deck = new WordDeck(3, 10, new SplittableRandom(3));
+        int previous = deck.draw();
+        for (int i = 0; i < 300; i++) {
+            int index = deck.draw();
+            assertNotEquals(previous, index);
+            previous = index;
+        }
+    }
+
+    @Test
+    void emptyDeckDealsNothing() {
+        WordDeck deck = new WordDeck(0, 10, new SplittableRandom(4));
+        assertEquals(-1, deck.draw());
+        assertEquals(-1, deck.draw());
+        assertEquals(0, deck.getEpoch());
+    }
+}
@@ -0,0 +1,84 @@
+package hangaroo;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that word IDs are dense and stay the same as the word files change.
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+class WordIdsTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void newTableNumbersWordsDensely() throws IOException {
+        int[][] ids = WordIds.assign(directory.resolve("Words.ids"), words("CAT", "DOG", "EMU"));
+
+        assertArrayEquals(new int[]{0, 1, 2}, ids[Difficulty.EASY.ordinal()]);
+        assertArrayEquals(new int[]{3}, ids[Difficulty.MEDIUM.ordinal()]);
+        assertArrayEquals(new int[]{4}, ids[Difficulty.HARD.ordinal()]);
+    }
+
+    @Test
+    void idsSurviveInsertedAndRemovedWords() throws IOException {
+        Path table = directory.resolve("Words.ids");
+        WordIds.assign(table, words("CAT", "DOG", "EMU"));
+
+        int[][] ids = WordIds.assign(table, words("ANT", "DOG", "cat"));
+
+        assertArrayEquals(new int[]{5, 1, 0}, ids[Difficulty.EASY.ordinal()]);
+        assertArrayEquals(new int[]{3}, ids[Difficulty.MEDIUM.ordinal()]);
+    }
+
+    @Test
+    void tornRecordIsCutBeforeAppending() throws IOException {
+        Path table = directory.resolve("Words.ids");
+        WordIds.assign(table, words("CAT", "DOG"));
+        long intact = Files.size(table);
+        Files.write(table, new byte[]{0, 0, 9, 'A'}, StandardOpenOption.APPEND);
+
+        int[][] ids = WordIds.assign(table, words("CAT", "DOG", "EMU"));
+
+        assertArrayEquals(new int[]{0, 1, 4}, ids[Difficulty.EASY.ordinal()]);
+        assertEquals(intact + 3 + "EMU".length(), Files.size(table));
+    }
+
+    @Test
+    void foreignFileIsNotReplaced() throws IOException {
+        Path table = Files.write(directory.resolve("Words.ids"), new byte[]{'n', 'o', 't', ' ', 'i', 'd', 's', '!'});
+
+        assertThrows(IOException.class, () -> WordIds.assign(table, words("CAT")));
+    }
+
+    /**
+     * Builds a corpus with the given easy words and one fixed medium and hard word.
+     */
+    private static Map<Difficulty, List<Word>> words(String... easy) {
+        Map<Difficulty, List<Word>> words = new EnumMap<>(Difficulty.class);
+        List<Word> easyWords = new ArrayList<>();
+        for (String word : easy) {
+            easyWords.add(new Word(word, "An easy word"));
+        }
+        words.put(Difficulty.EASY, easyWords);
+        words.put(Difficulty.MEDIUM, List.of(new Word("HORSE", "A medium word")));
+        words.put(Difficulty.HARD, List.of(new Word("PLATYPUS", "A hard word")));
+        return words;
+    }
+}
@@ -0,0 +1,118 @@
+package hangaroo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that word queries answered through the word index match exactly the words a
+ * plain scan of the corpus would.
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+class WordIndexTest {
+
+    @Test
+    void queriesFindExactlyTheMatchingWords() {
+        WordCorpus corpus = corpus(new SplittableRandom(5), 300);
+        SplittableRandom random = new SplittableRandom(6);
+        List<WordQuery> queries = List.of(
+                new WordQuery(Difficulty.EASY),
+                new WordQuery(Difficulty.MEDIUM).lengthBetween(4, 6),
+                new WordQuery(Difficulty.HARD).containing("ae"),
+                new WordQuery(Difficulty.EASY).excluding("AEIOU"),
+                new WordQuery(Difficulty.MEDIUM).lengthBetween(2, 9).containing("R").excluding("qz"),
+                new WordQuery(Difficulty.HARD).lengthBetween(7, 3),
+                new WordQuery(Difficulty.EASY).lengthBetween(-5, Integer.MAX_VALUE).containing("XYZ"));
+
+        for (WordQuery query : queries) {
+            Difficulty difficulty = query.getDifficulty();
+            WordIndex index = corpus.getIndex(difficulty);
+            long[] seen = new long[WordIndex.bitsetLength(corpus.size(difficulty))];
+            Set<Integer> found = new HashSet<>();
+            // Marking every word found as seen walks through all the matches, once each
+            for (int i = index.find(query, seen, random); i >= 0; i = index.find(query, seen, random)) {
+                assertTrue(found.add(i), "found twice: " + i);
+                seen[i >>> 6] |= 1L << i;
+            }
+            assertEquals(scan(corpus, query), found);
+        }
+    }
+
+    @Test
+    void generatorDealsEachMatchingWordOnce() {
+        WordCorpus corpus = corpus(new SplittableRandom(7), 200);
+        WordGenerator generator = new WordGenerator(corpus, new SplittableRandom(8));
+        WordQuery query = new WordQuery(Difficulty.MEDIUM).lengthBetween(3, 8).excluding("E");
+
+        Set<String> dealt = new HashSet<>();
+        for (Word word = generator.generateWord(query); word != null; word = generator.generateWord(query)) {
+            assertTrue(dealt.add(word.getWord()), word.getWord());
+        }
+        Set<String> expected = new HashSet<>();
+        for (int i : scan(corpus, query)) {
+            expected.add(corpus.getWord(Difficulty.MEDIUM, i).getWord());
+        }
+        assertEquals(expected, dealt);
+        assertNull(generator.generateWord(query));
+    }
+
+    /**
+     * Finds the indices of the words matching a query by looking at every word.
+     */
+    private static Set<Integer> scan(WordCorpus corpus, WordQuery query) {
+        Set<Integer> matches = new HashSet<>();
+        Difficulty difficulty = query.getDifficulty();
+        for (int i = 0; i < corpus.size(difficulty); i++) {
+            String word = corpus.getWord(difficulty, i).getWord();
+            int letters = WordQuery.letterMask(word);
+            if (word.length() >= query.getMinLength() && word.length() <= query.getMaxLength()
+                    && (letters & query.getRequiredLetters()) == query.getRequiredLetters()
+                    && (letters & query.getExcludedLetters()) == 0) {
+                matches.add(i);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Builds a corpus of distinct random words of 1 to 12 characters for every difficulty.
+     */
+    private static WordCorpus corpus(SplittableRandom random, int count) {
+        Map<Difficulty, List<Word>> words = new EnumMap<>(Difficulty.class);
+        int[][] ids = new int[Difficulty.values().length][];
+        int id = 1;
+        for (Difficulty difficulty : Difficulty.values()) {
+            Set<String> names = new HashSet<>();
+            while (names.size() < count) {
+                StringBuilder name = new StringBuilder();
+                for (int length = 1 + random.nextInt(12); name.length() < length; ) {
+                    name.append(random.nextInt(10) == 0 ? '-' : (char) ('A' + random.nextInt(26)));
+                }
+                names.add(name.toString());
+            }
+            List<Word> list = new ArrayList<>();
+            for (String name : names) {
+                list.add(new Word(name, "A word"));
+            }
+            words.put(difficulty, list);
+            ids[difficulty.ordinal()] = new int[count];
+            for (int i = 0; i < count; i++) {
+                ids[difficulty.ordinal()][i] = id++;
+            }
+        }
+        return new WordCorpus(new WordPack.Contents(WordPack.encodePack(words, 0, ids),
+                new WordPack.LoadReport("test", count * ids.length, 0, 0)));
+    }
+}
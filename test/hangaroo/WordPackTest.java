@@ -0,0 +1,128 @@
+package hangaroo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the compiled word pack against the XML word files it is compiled from.
+ *
+ * @author Jommel Sabater
+ * @version 1.0
+ */
+class WordPackTest {
+
+    @Test
+    void packHoldsTheWordsOfTheXmlFiles() throws IOException {
+        Map<Difficulty, List<Word>> words = WordPack.readXml();
+        ByteBuffer pack = WordPack.load().pack();
+
+        // A word listed twice shares its ID; different words never do
+        Map<String, Integer> ids = new HashMap<>();
+        Set<Integer> distinct = new HashSet<>();
+        for (Difficulty difficulty : Difficulty.values()) {
+            List<Word> expected = words.get(difficulty);
+            assertEquals(expected.size(), WordPack.count(pack, difficulty), difficulty.name());
+            int entry = WordPack.firstEntry(pack, difficulty);
+            for (Word word : expected) {
+                Word read = WordPack.readWord(pack, entry);
+                assertEquals(word.getWord(), read.getWord());
+                assertEquals(word.getDescription(), read.getDescription());
+                assertEquals(word.getWeight(), WordPack.weight(pack, entry), 1e-6);
+                int id = WordPack.id(pack, entry);
+                Integer previous = ids.putIfAbsent(difficulty + ":" + word.getWord().toUpperCase(Locale.ROOT), id);
+                if (previous == null) {
+                    assertTrue(distinct.add(id), "shared id for " + word.getWord());
+                } else {
+                    assertEquals(previous, id, word.getWord());
+                }
+                entry = WordPack.nextEntry(pack, entry);
+            }
+        }
+    }
+
+    @Test
+    void packIsMappedOnceCompiledAndKeepsItsIds() {
+        ByteBuffer first = WordPack.load().pack();
+        WordPack.Contents second = WordPack.load();
+
+        assertEquals(WordPack.PACK_PATH, second.report().source());
+        assertEquals(ids(first), ids(second.pack()));
+    }
+
+    @Test
+    void unreadablePackIsRecompiled() throws IOException {
+        List<Integer> ids = ids(WordPack.load().pack());
+        // Replaced rather than overwritten, since the pack may still be mapped
+        Path pack = Path.of(WordPack.PACK_PATH);
+        Path garbage = Files.write(pack.resolveSibling("Words.pack.garbage"), new byte[]{1, 2, 3});
+        Files.move(garbage, pack, StandardCopyOption.REPLACE_EXISTING);
+
+        WordPack.Contents contents = WordPack.load();
+
+        assertEquals("XML", contents.report().source());
+        assertEquals(ids, ids(contents.pack()));
+        assertEquals(WordPack.PACK_PATH, WordPack.load().report().source());
+    }
+
+    @Test
+    void wordsTooLongForAStageAreLeftOut(@TempDir Path directory) throws IOException {
+        String overlong = "A".repeat(Stage.MAX_WORD_LENGTH + 1);
+        String longest = "B".repeat(Stage.MAX_WORD_LENGTH);
+        StringBuilder xml = new StringBuilder("<words>");
+        for (String name : new String[]{"CAT", overlong, longest}) {
+            for (Difficulty difficulty : Difficulty.values()) {
+                xml.append("<word difficulty=\"").append(difficulty.name().toLowerCase(Locale.ROOT)).append("\">")
+                        .append("<name>").append(name).append("</name><description>A word</description></word>");
+            }
+        }
+        Path file = Files.writeString(directory.resolve("Words.xml"), xml.append("</words>"));
+
+        Map<Difficulty, List<Word>> words = WordPack.readXml(List.of(file));
+        for (Difficulty difficulty : Difficulty.values()) {
+            assertEquals(List.of("CAT", longest), words.get(difficulty).stream().map(Word::getWord).toList());
+        }
+
+        // A pack compiled by an older version may still hold the word
+        for (Difficulty difficulty : Difficulty.values()) {
+            words.get(difficulty).add(new Word(overlong, "A word"));
+        }
+        int[][] ids = new int[Difficulty.values().length][];
+        for (Difficulty difficulty : Difficulty.values()) {
+            ids[difficulty.ordinal()] = new int[]{1, 2, 3};
+        }
+        WordCorpus corpus = new WordCorpus(new WordPack.Contents(WordPack.encodePack(words, 0, ids),
+                new WordPack.LoadReport("test", 9, 0, 0)));
+        for (Difficulty difficulty : Difficulty.values()) {
+            assertEquals(2, corpus.size(difficulty));
+            assertEquals(Stage.MAX_WORD_LENGTH, corpus.getLength(difficulty, 1));
+        }
+    }
+
+    private static List<Integer> ids(ByteBuffer pack) {
+        List<Integer> ids = new ArrayList<>();
+        for (Difficulty difficulty : Difficulty.values()) {
+            int entry = WordPack.firstEntry(pack, difficulty);
+            for (int i = 0; i < WordPack.count(pack, difficulty); i++) {
+                ids.add(WordPack.id(pack, entry));
+                entry = WordPack.nextEntry(pack, entry);
+            }
+        }
+        return ids;
+    }
+}